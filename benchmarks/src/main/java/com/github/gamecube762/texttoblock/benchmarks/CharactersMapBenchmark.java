@@ -0,0 +1,48 @@
+package com.github.gamecube762.texttoblock.benchmarks;
+
+import com.github.gamecube762.texttoblock.services.TextToBlockService;
+import com.github.gamecube762.texttoblock.util.BlockCharacter;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getBlockCharactersMap on a sign sized and a paragraph sized text.
+ * "cold" has the glyph cache disabled so every character is rendered, "warm" has every character cached already.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharactersMapBenchmark {
+
+    @Param({"short", "long"})
+    public String text;
+
+    @Param({"cold", "warm"})
+    public String cache;
+
+    @Param({"16", "48"})
+    public int size;
+
+    private TextToBlockService service;
+    private Font font;
+    private String string;
+
+    @Setup
+    public void setup() {
+        service = new TextToBlockService(null, "warm".equals(cache) ? TextToBlockService.DEFAULT_GLYPH_CACHE_SIZE : 0);
+        font = Fonts.load(Fonts.SANS, size);
+        string = "long".equals(text) ? Fonts.LONG_TEXT : Fonts.SHORT_TEXT;
+        service.getBlockCharactersMap(string, font);
+    }
+
+    @Benchmark
+    public Map<Character, BlockCharacter> getBlockCharactersMap() {
+        return service.getBlockCharactersMap(string, font);
+    }
+}
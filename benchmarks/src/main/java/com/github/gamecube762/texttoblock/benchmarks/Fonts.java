@@ -0,0 +1,62 @@
+package com.github.gamecube762.texttoblock.benchmarks;
+
+import com.github.gamecube762.texttoblock.Settings;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Fonts and texts the benchmarks share.
+ * The fonts are bundled so the numbers don't depend on what the machine has installed.
+ */
+final class Fonts {
+
+    static final String SANS = "DejaVuSans.ttf";
+    static final String MONO = "DejaVuSansMono.ttf";
+
+    static final String SHORT_TEXT = "Spawn";
+    static final String LONG_TEXT = "Welcome to the server!\nPlease read the rules at /rules before you build.\n"
+            + "Griefing, spamming and lag machines are not allowed.\nHave fun and be nice to each other :)";
+
+    private Fonts() {}
+
+    /**
+     * Loads a bundled font.
+     *
+     * @param file file name under /fonts
+     * @param size point size
+     * @return font
+     */
+    static Font load(String file, float size) {
+        try (InputStream in = Fonts.class.getResourceAsStream("/fonts/" + file)) {
+            if (in == null) throw new IllegalArgumentException("No bundled font " + file);
+            return Font.createFont(Font.TRUETYPE_FONT, in).deriveFont(size);
+        } catch (FontFormatException e) {
+            throw new IllegalArgumentException("Bad bundled font " + file, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Characters of a charset; "ascii" and "latin1" as in the prewarm config, "greek" and "cyrillic" for their basic letters.
+     *
+     * @param charset charset name
+     * @return characters
+     */
+    static String charset(String charset) {
+        switch (charset) {
+            case "greek": return range(0x391, 0x3A9) + range(0x3B1, 0x3C9);
+            case "cyrillic": return range(0x410, 0x44F);
+            default: return Settings.Prewarm.charset(charset);
+        }
+    }
+
+    private static String range(int from, int to) {
+        StringBuilder b = new StringBuilder(to - from + 1);
+        for (int c = from; c <= to; c++) b.append((char) c);
+        return b.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.gamecube762.texttoblock.benchmarks;
+
+import com.github.gamecube762.texttoblock.services.TextToBlockService;
+import com.github.gamecube762.texttoblock.util.Alignment;
+import com.github.gamecube762.texttoblock.util.BlockString;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BlockString construction plus getWidth/getHeight, with every glyph already cached; so mostly the layout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmark {
+
+    @Param({"short", "long"})
+    public String text;
+
+    @Param({"LEFT", "CENTER", "RIGHT"})
+    public Alignment alignment;
+
+    private Font font;
+    private String string;
+
+    @Setup
+    public void setup() {
+        if (TextToBlockService.getMe() == null)
+            new TextToBlockService(null);
+        font = Fonts.load(Fonts.SANS, 16);
+        string = "long".equals(text) ? Fonts.LONG_TEXT : Fonts.SHORT_TEXT;
+        TextToBlockService.getMe().getBlockCharactersMap(string, font);
+    }
+
+    @Benchmark
+    public BlockString construct() {
+        return new BlockString(string, font, alignment);
+    }
+
+    @Benchmark
+    public long constructAndMeasure() {
+        BlockString b = new BlockString(string, font, alignment);
+        return ((long) b.getWidth() << 32) | b.getHeight();
+    }
+}
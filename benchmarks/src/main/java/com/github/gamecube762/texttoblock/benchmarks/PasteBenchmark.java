@@ -0,0 +1,122 @@
+package com.github.gamecube762.texttoblock.benchmarks;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.github.gamecube762.texttoblock.services.TextToBlockService;
+import com.github.gamecube762.texttoblock.util.BlockString;
+import org.openjdk.jmh.annotations.*;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import java.awt.*;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BlockString.pasteAt against a World that only counts setBlock calls.
+ * Measures what the plugin does per block, not what the server does with it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasteBenchmark {
+
+    @Param({"short", "long"})
+    public String text;
+
+    @Param({"16", "48"})
+    public int size;
+
+    private BlockString string;
+    private CountingWorld counter;
+    private World world;
+    private BlockType type;
+    private BlockState state;
+    private Location<World> location;
+
+    @Setup
+    public void setup() {
+        if (TextToBlockService.getMe() == null)
+            new TextToBlockService(null);
+        string = new BlockString("long".equals(text) ? Fonts.LONG_TEXT : Fonts.SHORT_TEXT, Fonts.load(Fonts.SANS, size));
+
+        counter = new CountingWorld();
+        world = counter.proxy();
+        state = stub(BlockState.class, null);
+        type = stub(BlockType.class, state);
+        location = new Location<>(world, 0, 64, 0);
+    }
+
+    @Benchmark
+    public long pasteAtLocation() {
+        string.pasteAt(location, type, null);
+        return counter.blocks;
+    }
+
+    @Benchmark
+    public long pasteAtCoordinates() {
+        string.pasteAt(world, 0, 64, 0, state, null);
+        return counter.blocks;
+    }
+
+    @Benchmark
+    public long pasteAtScaled() {
+        string.pasteAt(world, 0, 64, 0, state, null, 3, 2);
+        return counter.blocks;
+    }
+
+    /**
+     * Interface stub that answers every call with the given value, or the primitive default.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Object answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, m, args) -> {
+            if (m.getDeclaringClass() == Object.class) return m.getName().equals("equals") ? p == args[0] : m.getName().equals("hashCode") ? System.identityHashCode(p) : type.getSimpleName();
+            if (answer != null && m.getReturnType().isInstance(answer)) return answer;
+            return defaultValue(m.getReturnType());
+        });
+    }
+
+    private static Object defaultValue(Class<?> c) {
+        if (c == boolean.class) return false;
+        if (c == int.class) return 0;
+        if (c == long.class) return 0L;
+        if (c == double.class) return 0D;
+        if (c == float.class) return 0F;
+        if (c == short.class) return (short) 0;
+        if (c == byte.class) return (byte) 0;
+        if (c == char.class) return (char) 0;
+        if (c == java.util.Optional.class) return java.util.Optional.empty();
+        return null;
+    }
+
+    /**
+     * In-memory stand-in World; setBlock only bumps a counter and succeeds, everything else returns a default.
+     * No chunks are loaded, so pastes fall back to World#setBlock.
+     */
+    private static final class CountingWorld {
+
+        long blocks;
+
+        World proxy() {
+            return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class}, (p, m, args) -> {
+                switch (m.getName()) {
+                    case "setBlock":
+                        blocks++;
+                        return true;
+                    case "getBlockMin": return new Vector3i(-30000000, 0, -30000000);
+                    case "getBlockMax": return new Vector3i(30000000, 255, 30000000);
+                    case "equals": return p == args[0];
+                    case "hashCode": return System.identityHashCode(p);
+                    case "toString":
+                    case "getName": return "benchmark";
+                    default: return defaultValue(m.getReturnType());
+                }
+            });
+        }
+    }
+}
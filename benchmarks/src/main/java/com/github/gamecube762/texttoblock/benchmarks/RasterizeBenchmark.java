@@ -0,0 +1,48 @@
+package com.github.gamecube762.texttoblock.benchmarks;
+
+import com.github.gamecube762.texttoblock.services.TextToBlockService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * toBlockCharacter; drawing a glyph and reading it back as a mask, without any caching.
+ * Time is for the whole charset, divide by its length for a single glyph.
+ * Ran with a proportional and a monospaced font, as their glyphs are drawn into different sized boxes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RasterizeBenchmark {
+
+    @Param({"12", "32", "64"})
+    public int size;
+
+    @Param({"ascii", "latin1", "greek", "cyrillic"})
+    public String charset;
+
+    @Param({Fonts.SANS, Fonts.MONO})
+    public String fontFile;
+
+    private TextToBlockService service;
+    private Font font;
+    private char[] chars;
+
+    @Setup
+    public void setup() {
+        service = new TextToBlockService(null, 0);
+        font = Fonts.load(fontFile, size);
+        chars = Fonts.charset(charset).toCharArray();
+    }
+
+    @Benchmark
+    public void toBlockCharacter(Blackhole bh) {
+        for (char c : chars)
+            bh.consume(service.toBlockCharacter(c, font));
+    }
+}
@@ -0,0 +1,282 @@
+package com.github.gamecube762.texttoblock.cli;
+
+import com.github.gamecube762.texttoblock.util.BlockLayout;
+import com.github.gamecube762.texttoblock.util.Footprint;
+import com.github.gamecube762.texttoblock.util.Glyph;
+import com.github.gamecube762.texttoblock.util.Orientation;
+import com.github.gamecube762.texttoblock.util.Schematic;
+import com.github.gamecube762.texttoblock.util.Spans;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a file of jobs to schematics or footprints, without a server. See RenderJob for the file format.
+ *
+ * Jobs are rendered in parallel; glyphs are shared between jobs that use the same font and size, every thread draws with its own RenderContext.
+ */
+public class BatchRenderer {
+
+    public enum Format {
+        SCHEMATIC(".schematic"),
+        FOOTPRINT(Footprint.EXTENSION);
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final Path fontDir;
+    private final Path outDir;
+    private final Format format;
+    private final Orientation orientation;
+    private final String blockId;
+    private final int scale;
+
+    private final Map<String, LoadedFont> fonts = new ConcurrentHashMap<>();//base fonts by name, size 1
+    private final Map<String, Map<Character, Glyph>> glyphs = new ConcurrentHashMap<>();//by font source and size; Font#equals only compares name, style and size
+
+    /**
+     * @param fontDir where font names are looked up, as name.ttf
+     * @param outDir where the files are written
+     * @param format file format
+     * @param orientation direction the text is written in
+     * @param blockId block schematics use, like minecraft:stone
+     * @param scale blocks per pixel along each side
+     */
+    public BatchRenderer(Path fontDir, Path outDir, Format format, Orientation orientation, String blockId, int scale) {
+        this.fontDir = fontDir;
+        this.outDir = outDir;
+        this.format = format;
+        this.orientation = orientation;
+        this.blockId = blockId;
+        this.scale = Math.max(1, scale);
+    }
+
+    /**
+     * Renders the job and writes its file.
+     *
+     * @param job job
+     * @return blocks written
+     * @throws IOException if the font or the file couldn't be read or written
+     */
+    int render(RenderJob job) throws IOException {
+        LoadedFont base = getFont(job.getFont());
+        Font font = base.font.deriveFont(job.getSize());
+        Map<Character, Glyph> cache = glyphs.computeIfAbsent(base.source + "@" + job.getSize(), k -> new ConcurrentHashMap<>());
+
+        String text = job.getText();
+        Map<Character, Glyph> used = new HashMap<>();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '\n' && !used.containsKey(c))
+                used.put(c, cache.computeIfAbsent(c, k -> Glyph.render(k, font)));
+        }
+
+        int[] spans = Spans.scale(BlockLayout.of(text, used, Glyph.NEWLINE, job.getAlignment()).getSpans(), scale);
+        Path out = outDir.resolve(job.getName() + format.getExtension());
+        if (format == Format.SCHEMATIC)
+            Schematic.save(out, spans, orientation, blockId);
+        else
+            Footprint.of(spans, orientation).save(out);
+        return Spans.count(spans);
+    }
+
+    /**
+     * Gets the font by name; a .ttf path, a name.ttf in the font folder, or a font installed on the system.
+     */
+    private LoadedFont getFont(String name) throws IOException {
+        try {
+            return fonts.computeIfAbsent(name.toLowerCase(Locale.ROOT), k -> {
+                try {return loadFont(name);}
+                catch (IOException e) {throw new UncheckedIOException(e);}
+            });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private LoadedFont loadFont(String name) throws IOException {
+        Path path = name.toLowerCase(Locale.ROOT).endsWith(".ttf") ? Paths.get(name) : fontDir.resolve(name + ".ttf");
+        if (!Files.isRegularFile(path) && !path.isAbsolute())
+            path = fontDir.resolve(path.getFileName());
+
+        if (Files.isRegularFile(path))
+            try {return new LoadedFont(path.toAbsolutePath().normalize().toString(), Font.createFont(Font.TRUETYPE_FONT, path.toFile()));}
+            catch (FontFormatException e) {
+                throw new IOException(String.format("Unable to load %s | %s", path.getFileName(), e.getMessage()), e);
+            }
+
+        Font f = new Font(name, Font.PLAIN, 1);//Unknown names fall back to Dialog
+        if (f.getFamily(Locale.ROOT).equalsIgnoreCase(name) || f.getFontName(Locale.ROOT).equalsIgnoreCase(name))
+            return new LoadedFont("system:" + f.getFontName(Locale.ROOT), f);
+        throw new IOException("Unknown font: " + name);
+    }
+
+    /**
+     * A base font and where it came from; the file it was loaded from, or the system font's name.
+     */
+    private static final class LoadedFont {
+        private final String source;
+        private final Font font;
+
+        LoadedFont(String source, Font font) {
+            this.source = source;
+            this.font = font;
+        }
+    }
+
+    /**
+     * Renders every job on a pool of threads and prints any that failed.
+     *
+     * @param jobs jobs
+     * @param threads threads to render on
+     * @return amount of jobs that failed
+     * @throws InterruptedException if interrupted while waiting for the jobs
+     */
+    public int renderAll(List<RenderJob> jobs, int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        long start = System.nanoTime(), blocks = 0;
+        int failed = 0;
+
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>(jobs.size());
+            for (RenderJob job : jobs)
+                tasks.add(() -> render(job));
+
+            List<Future<Integer>> results = pool.invokeAll(tasks);
+            for (int i = 0; i < results.size(); i++)
+                try {blocks += results.get(i).get();}
+                catch (ExecutionException e) {
+                    failed++;
+                    System.err.println(String.format("Line %s (%s): %s", jobs.get(i).getLine(), jobs.get(i).getName(), e.getCause().getMessage()));
+                }
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println(String.format("Rendered %s of %s job(s), %s blocks, in %sms (%.1f jobs/s) to %s",
+                jobs.size() - failed, jobs.size(), blocks, ms, jobs.size() * 1000.0 / Math.max(1, ms), outDir.toAbsolutePath()));
+        return failed;
+    }
+
+    /**
+     * Reads the jobs file. Blank lines and lines starting with # are skipped.
+     *
+     * @param path jobs file
+     * @param errors receives the lines that couldn't be parsed, or reuse the name of an earlier job
+     * @return jobs
+     * @throws IOException if failed to read
+     */
+    static List<RenderJob> readJobs(Path path, List<String> errors) throws IOException {
+        List<RenderJob> jobs = new ArrayList<>();
+        Map<String, RenderJob> names = new HashMap<>();//Lower case, names differing only in case are the same file on some systems
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String s = lines.get(i);
+            if (s.trim().isEmpty() || s.startsWith("#")) continue;
+            RenderJob job;
+            try {job = RenderJob.parse(i + 1, s);}
+            catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+                continue;
+            }
+
+            RenderJob other = names.putIfAbsent(job.getName().toLowerCase(Locale.ROOT), job);
+            if (other != null)
+                errors.add(String.format("Line %s: name '%s' is already used by line %s", job.getLine(), job.getName(), other.getLine()));
+            else
+                jobs.add(job);
+        }
+        return jobs;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: java -jar TextToBlock-cli.jar [options] <jobs file>");
+        System.err.println("Jobs file: one job per line; text<TAB>font<TAB>size[<TAB>alignment[<TAB>name]]. \\n in the text is a line break.");
+        System.err.println("  --out <dir>            where to write the files (out)");
+        System.err.println("  --format <format>      schematic or footprint (schematic)");
+        System.err.println("  --fonts <dir>          where to look for name.ttf (fonts)");
+        System.err.println("  --threads <n>          threads to render on (all processors)");
+        System.err.println("  --orientation <dir>    east, south, west or north (east)");
+        System.err.println("  --block <id>           block schematics use (minecraft:diamond_block)");
+        System.err.println("  --scale <n>            blocks per pixel along each side (1)");
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("java.awt.headless") == null)
+            System.setProperty("java.awt.headless", "true");
+
+        Path out = Paths.get("out"), fonts = Paths.get("fonts"), jobsFile = null;
+        Format format = Format.SCHEMATIC;
+        Orientation orientation = Orientation.EAST;
+        String block = "minecraft:diamond_block";
+        int threads = Runtime.getRuntime().availableProcessors(), scale = 1;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                if (!a.startsWith("--")) {
+                    if (jobsFile != null) throw new IllegalArgumentException("Only one jobs file can be given");
+                    jobsFile = Paths.get(a);
+                    continue;
+                }
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + a);
+                String v = args[++i];
+                switch (a) {
+                    case "--out": out = Paths.get(v); break;
+                    case "--fonts": fonts = Paths.get(v); break;
+                    case "--format": format = Format.valueOf(v.toUpperCase(Locale.ROOT)); break;
+                    case "--threads": threads = Integer.parseInt(v); break;
+                    case "--block": block = v; break;
+                    case "--scale": scale = Integer.parseInt(v); break;
+                    case "--orientation":
+                        if ((orientation = Orientation.of(v)) == null) throw new IllegalArgumentException("Unknown orientation " + v);
+                        break;
+                    default: throw new IllegalArgumentException("Unknown option " + a);
+                }
+            }
+            if (jobsFile == null) throw new IllegalArgumentException("No jobs file given");
+        }
+        catch (IllegalArgumentException e) {//NumberFormatException too
+            System.err.println(e.getMessage());
+            usage();
+            System.exit(2);
+            return;
+        }
+
+        List<String> errors = new ArrayList<>();
+        List<RenderJob> jobs = readJobs(jobsFile, errors);
+        errors.forEach(System.err::println);
+
+        Files.createDirectories(out);
+        int failed = new BatchRenderer(fonts, out, format, orientation, block, scale).renderAll(jobs, threads);
+        System.exit(failed + errors.size() > 0 ? 1 : 0);
+    }
+}
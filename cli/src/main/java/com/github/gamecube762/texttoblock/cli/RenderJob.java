@@ -0,0 +1,81 @@
+package com.github.gamecube762.texttoblock.cli;
+
+import com.github.gamecube762.texttoblock.util.Alignment;
+
+/**
+ * A line of a jobs file; text, font, size, alignment and optionally a name, separated by tabs.
+ *
+ * "\n" in the text is a line break, like with /ttb. Alignment defaults to left and the name to the line number.
+ */
+final class RenderJob {
+
+    private final int line;
+    private final String text;
+    private final String font;
+    private final float size;
+    private final Alignment alignment;
+    private final String name;
+
+    private RenderJob(int line, String text, String font, float size, Alignment alignment, String name) {
+        this.line = line;
+        this.text = text;
+        this.font = font;
+        this.size = size;
+        this.alignment = alignment;
+        this.name = name;
+    }
+
+    /**
+     * @param line line number, for errors and the default name
+     * @param s the line
+     * @return job
+     * @throws IllegalArgumentException if the line isn't a valid job
+     */
+    static RenderJob parse(int line, String s) {
+        String[] a = s.split("\t", -1);
+        if (a.length < 3)
+            throw new IllegalArgumentException(String.format("Line %s: expected text, font, size[, alignment[, name]] separated by tabs", line));
+
+        float size;
+        try {size = Float.parseFloat(a[2].trim());}
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Line %s: bad size '%s'", line, a[2]));
+        }
+        if (!(size > 0))
+            throw new IllegalArgumentException(String.format("Line %s: size must be more than 0", line));
+
+        Alignment alignment = Alignment.LEFT;
+        if (a.length > 3 && !a[3].trim().isEmpty() && (alignment = Alignment.of(a[3].trim())) == null)
+            throw new IllegalArgumentException(String.format("Line %s: unknown alignment '%s'", line, a[3]));
+
+        String name = a.length > 4 && !a[4].trim().isEmpty() ? a[4].trim() : String.format("line-%05d", line);
+        if (!name.matches("[\\w.-]+"))
+            throw new IllegalArgumentException(String.format("Line %s: name may only use letters, digits, '_', '-' and '.'", line));
+
+        return new RenderJob(line, a[0].replace("\\n", "\n"), a[1].trim(), size, alignment, name);
+    }
+
+    int getLine() {
+        return line;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    String getFont() {
+        return font;
+    }
+
+    float getSize() {
+        return size;
+    }
+
+    Alignment getAlignment() {
+        return alignment;
+    }
+
+    String getName() {
+        return name;
+    }
+}
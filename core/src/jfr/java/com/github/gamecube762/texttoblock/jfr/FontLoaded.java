@@ -0,0 +1,24 @@
+package com.github.gamecube762.texttoblock.jfr;
+
+import jdk.jfr.*;
+
+@Name("texttoblock.FontLoaded")
+@Label("Font Loaded")
+@Category("TextToBlock")
+@Description("A font file was parsed")
+final class FontLoaded extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Proxied")
+    @Description("Found through a .ttfproxy")
+    boolean proxied;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+
+    @Label("Error")
+    String error;
+}
@@ -0,0 +1,28 @@
+package com.github.gamecube762.texttoblock.jfr;
+
+import jdk.jfr.*;
+
+@Name("texttoblock.GlyphRasterized")
+@Label("Glyph Rasterized")
+@Category("TextToBlock")
+@Description("A glyph was drawn and read back into a mask")
+@StackTrace(false)
+final class GlyphRasterized extends Event {
+
+    @Label("Font")
+    String font;
+
+    @Label("Size")
+    float size;
+
+    @Label("Character")
+    char character;
+
+    @Label("Pixels")
+    @Description("Set pixels, the blocks the glyph places")
+    int pixels;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+}
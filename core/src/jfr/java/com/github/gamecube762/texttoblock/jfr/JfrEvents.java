@@ -0,0 +1,92 @@
+package com.github.gamecube762.texttoblock.jfr;
+
+import com.github.gamecube762.texttoblock.util.JfrBridge;
+import jdk.jfr.EventType;
+
+import java.awt.*;
+
+/**
+ * JfrBridge backed by real JFR events. Loaded by JfrBridge if jdk.jfr is there; don't use it directly.
+ *
+ * The time is given by the caller and kept in the nanos field, the events' own duration is 0; filter on Time rather than with a threshold.
+ */
+public class JfrEvents extends JfrBridge {
+
+    private final EventType glyphRasterized = EventType.getEventType(GlyphRasterized.class);
+    private final EventType fontLoaded = EventType.getEventType(FontLoaded.class);
+    private final EventType textPasted = EventType.getEventType(TextPasted.class);
+    private final EventType pasteTick = EventType.getEventType(PasteTick.class);
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean isGlyphRasterizedEnabled() {
+        return glyphRasterized.isEnabled();
+    }
+
+    @Override
+    public void glyphRasterized(Font font, char c, int pixels, long nanos) {
+        GlyphRasterized e = new GlyphRasterized();
+        if (!e.isEnabled()) return;
+        e.font = font.getFontName();
+        e.size = font.getSize2D();
+        e.character = c;
+        e.pixels = pixels;
+        e.nanos = nanos;
+        e.commit();
+    }
+
+    @Override
+    public boolean isFontLoadedEnabled() {
+        return fontLoaded.isEnabled();
+    }
+
+    @Override
+    public void fontLoaded(String path, boolean proxied, long nanos, String error) {
+        FontLoaded e = new FontLoaded();
+        if (!e.isEnabled()) return;
+        e.path = path;
+        e.proxied = proxied;
+        e.nanos = nanos;
+        e.error = error;
+        e.commit();
+    }
+
+    @Override
+    public boolean isTextPastedEnabled() {
+        return textPasted.isEnabled();
+    }
+
+    @Override
+    public void textPasted(int chars, int blocks, String world, long nanos) {
+        TextPasted e = new TextPasted();
+        if (!e.isEnabled()) return;
+        e.chars = chars;
+        e.blocks = blocks;
+        e.world = world;
+        e.nanos = nanos;
+        e.commit();
+    }
+
+    @Override
+    public boolean isPasteTickEnabled() {
+        return pasteTick.isEnabled();
+    }
+
+    @Override
+    public void pasteTick(String world, int blocks, int chunks, long nanos, int placed, int total, boolean finished) {
+        PasteTick e = new PasteTick();
+        if (!e.isEnabled()) return;
+        e.world = world;
+        e.blocks = blocks;
+        e.chunks = chunks;
+        e.nanos = nanos;
+        e.placed = placed;
+        e.total = total;
+        e.finished = finished;
+        e.commit();
+    }
+}
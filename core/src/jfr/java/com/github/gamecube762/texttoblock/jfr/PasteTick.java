@@ -0,0 +1,38 @@
+package com.github.gamecube762.texttoblock.jfr;
+
+import jdk.jfr.*;
+
+@Name("texttoblock.PasteTick")
+@Label("Paste Tick")
+@Category("TextToBlock")
+@Description("A scheduled paste placed its share of blocks for a tick")
+@StackTrace(false)
+final class PasteTick extends Event {
+
+    @Label("World")
+    String world;
+
+    @Label("Blocks")
+    @Description("Blocks placed this tick")
+    int blocks;
+
+    @Label("Chunks")
+    @Description("Chunks entered this tick")
+    int chunks;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+
+    @Label("Placed")
+    @Description("Blocks the paste has placed so far")
+    int placed;
+
+    @Label("Total")
+    @Description("Blocks the paste places in all")
+    int total;
+
+    @Label("Finished")
+    @Description("This tick placed the last blocks of the paste")
+    boolean finished;
+}
@@ -0,0 +1,23 @@
+package com.github.gamecube762.texttoblock.jfr;
+
+import jdk.jfr.*;
+
+@Name("texttoblock.TextPasted")
+@Label("Text Pasted")
+@Category("TextToBlock")
+@Description("A BlockString was pasted in one go")
+final class TextPasted extends Event {
+
+    @Label("Characters")
+    int chars;
+
+    @Label("Blocks")
+    int blocks;
+
+    @Label("World")
+    String world;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+}
@@ -0,0 +1,340 @@
+package com.github.gamecube762.texttoblock.util;
+
+import java.util.Map;
+
+/**
+ * The precomputed layout of a BlockString; where every line and character goes.
+ *
+ * Lines are split on \n. Line 0 is the top line, its y offset is the height of the text minus its own height, every following line goes below the one before it.
+ * Immutable, use withAlignment(...) to get the layout for a different alignment.
+ *
+ * @param <G> glyph type; BlockCharacter in the plugin, plain Glyphs anywhere else
+ */
+public final class BlockLayout<G extends Glyph> {
+
+    private final String text;
+    private final Alignment alignment;
+    private final Glyph[] glyphs;//one per char of text, all G
+    private final int[] lineStart, lineEnd;//lineEnd is exclusive, doesn't include the \n
+    private final int[] lineWidth, lineHeight;
+    private final int width, height;
+
+    private final int[] lineX, lineY;
+    private final int[] charX;
+
+    private BlockLayout(String text, Alignment alignment, Glyph[] glyphs, int[] lineStart, int[] lineEnd, int[] lineWidth, int[] lineHeight, int width, int height) {
+        this.text = text;
+        this.alignment = alignment == null ? Alignment.LEFT : alignment;
+        this.glyphs = glyphs;
+        this.lineStart = lineStart;
+        this.lineEnd = lineEnd;
+        this.lineWidth = lineWidth;
+        this.lineHeight = lineHeight;
+        this.width = width;
+        this.height = height;
+
+        int lines = lineStart.length;
+        this.lineX = new int[lines];
+        this.lineY = new int[lines];
+        this.charX = new int[glyphs.length];
+
+        int y = height;
+        for (int i = 0; i < lines; i++) {
+            y -= lineHeight[i];
+            lineY[i] = y;
+            switch (this.alignment) {
+                default:
+                case LEFT: lineX[i] = 0; break;
+                case CENTER: lineX[i] = (width/2)-(lineWidth[i]/2); break;
+                case RIGHT: lineX[i] = width - lineWidth[i]; break;
+            }
+
+            int x = lineX[i];
+            for (int c = lineStart[i]; c < lineEnd[i]; c++) {
+                charX[c] = x;
+                x += glyphs[c].getWidth();
+            }
+            if (lineEnd[i] < glyphs.length)//the \n
+                charX[lineEnd[i]] = x;
+        }
+    }
+
+    /**
+     * Lays out the text using the glyphs in the map.
+     *
+     * @param text text
+     * @param chars glyphs for every char used by the text
+     * @param newline glyph to put at every \n, see Glyph#NEWLINE
+     * @param alignment alignment
+     * @param <G> glyph type
+     * @return layout
+     * @throws IllegalArgumentException if a char of the text is missing from the map
+     */
+    public static <G extends Glyph> BlockLayout<G> of(String text, Map<Character, ? extends G> chars, G newline, Alignment alignment) {
+        int lines = 1;
+        for (int i = 0; i < text.length(); i++)
+            if (text.charAt(i) == '\n')
+                lines++;
+
+        Glyph[] glyphs = new Glyph[text.length()];
+        int[] lineStart = new int[lines], lineEnd = new int[lines], lineWidth = new int[lines], lineHeight = new int[lines];
+        int width = 0, height = 0;
+
+        int line = 0, w = 0, h = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                glyphs[i] = newline;
+                lineEnd[line] = i;
+                lineWidth[line] = w;
+                lineHeight[line] = h;
+                width = Math.max(width, w);
+                height = Math.max(height, h);
+                lineStart[++line] = i + 1;
+                w = h = 0;
+                continue;
+            }
+
+            G b = chars.get(c);
+            if (b == null)
+                throw new IllegalArgumentException(String.format("No glyph for '%s'", c));
+            glyphs[i] = b;
+            w += b.getWidth();
+            h = Math.max(h, b.getHeight());
+        }
+        lineEnd[line] = text.length();
+        lineWidth[line] = w;
+        lineHeight[line] = h;
+        width = Math.max(width, w);
+        height = Math.max(height, h);
+
+        return new BlockLayout<>(text, alignment, glyphs, lineStart, lineEnd, lineWidth, lineHeight, width, height);
+    }
+
+    /**
+     * Get this layout with a different alignment. Line metrics are reused, only the offsets are recalculated.
+     *
+     * @param alignment alignment
+     * @return layout with the alignment, or this if it's the same
+     */
+    public BlockLayout<G> withAlignment(Alignment alignment) {
+        if (alignment == this.alignment) return this;
+        return new BlockLayout<>(text, alignment, glyphs, lineStart, lineEnd, lineWidth, lineHeight, width, height);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Alignment getAlignment() {
+        return alignment;
+    }
+
+    /**
+     * Width of the widest line.
+     *
+     * @return width in blocks
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Height of the tallest line.
+     *
+     * @return height in blocks
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLineCount() {
+        return lineStart.length;
+    }
+
+    /**
+     * Index in the text of the first char of the line.
+     *
+     * @param line line, 0 index
+     * @return index
+     */
+    public int getLineStart(int line) {
+        return lineStart[line];
+    }
+
+    /**
+     * Index in the text after the last char of the line. This is the \n, or the length of the text.
+     *
+     * @param line line, 0 index
+     * @return index, exclusive
+     */
+    public int getLineEnd(int line) {
+        return lineEnd[line];
+    }
+
+    public int getLineWidth(int line) {
+        return lineWidth[line];
+    }
+
+    public int getLineHeight(int line) {
+        return lineHeight[line];
+    }
+
+    /**
+     * X offset of the line, from the alignment.
+     *
+     * @param line line, 0 index
+     * @return x offset
+     */
+    public int getLineX(int line) {
+        return lineX[line];
+    }
+
+    /**
+     * Y offset of the bottom of the line.
+     *
+     * @param line line, 0 index
+     * @return y offset
+     */
+    public int getLineY(int line) {
+        return lineY[line];
+    }
+
+    /**
+     * X offset of the char at this index of the text.
+     *
+     * @param index index in the text
+     * @return x offset
+     */
+    public int getCharX(int index) {
+        return charX[index];
+    }
+
+    /**
+     * The glyph used at this index of the text.
+     *
+     * @param index index in the text
+     * @return glyph
+     */
+    @SuppressWarnings("unchecked")
+    public G getGlyph(int index) {
+        return (G) glyphs[index];
+    }
+
+    /**
+     * Get the line of the text as a string.
+     *
+     * @param line line, 0 index
+     * @return line without the \n
+     */
+    public String getLine(int line) {
+        return text.substring(lineStart[line], lineEnd[line]);
+    }
+
+    /**
+     * Get the amount of blocks of the whole text.
+     *
+     * @return block count
+     */
+    public int getBlockCount() {
+        int count = 0;
+        for (Glyph g : glyphs)
+            count += g.getBlockCount();
+        return count;
+    }
+
+    /**
+     * Gives every block of the text to the sink, relative to the bottom-left. Nothing is allocated.
+     * Goes through the text line by line, character by character.
+     *
+     * @param sink receives x,y,0 of every block
+     */
+    public void forEachBlock(BlockSink sink) {
+        for (int l = 0; l < getLineCount(); l++) {
+            int y = lineY[l];
+            for (int c = lineStart[l]; c < lineEnd[l]; c++)
+                glyphs[c].forEachBlock(sink, charX[c], y);
+        }
+    }
+
+    /**
+     * Get the offsets of every block of the text, relative to the bottom-left.
+     * Offsets are stored as x,y pairs; [x0, y0, x1, y1, ...]
+     *
+     * @return block offsets
+     */
+    public int[] getOffsets() {
+        int[] a = new int[getBlockCount() * 2];
+        int i = 0;
+        for (int l = 0; l < getLineCount(); l++) {
+            int y = lineY[l];
+            for (int c = lineStart[l]; c < lineEnd[l]; c++) {
+                int x = charX[c];
+                GlyphMask mask = glyphs[c].getMask();
+                for (int my = 0; my < mask.getHeight(); my++)
+                    for (int mx = mask.nextSetBit(my, 0); mx >= 0; mx = mask.nextSetBit(my, mx + 1)) {
+                        a[i++] = x + mx;
+                        a[i++] = y + my;
+                    }
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Get the row spans of every character, relative to the bottom-left. See Spans.
+     * Spans are stored as y,x0,x1 triples with x1 exclusive; [y0, x0, x1, ...]
+     *
+     * @return block spans
+     */
+    public int[] getSpans() {
+        int count = 0;
+        for (Glyph g : glyphs)
+            count += g.spans().length;
+
+        int[] a = new int[count];
+        int i = 0;
+        for (int l = 0; l < getLineCount(); l++) {
+            int y = lineY[l];
+            for (int c = lineStart[l]; c < lineEnd[l]; c++) {
+                int x = charX[c];
+                int[] s = glyphs[c].spans();
+                for (int k = 0; k < s.length; k += 3) {
+                    a[i++] = y + s[k];
+                    a[i++] = x + s[k + 1];
+                    a[i++] = x + s[k + 2];
+                }
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Get rectangles covering every character, relative to the bottom-left; x,y,width,height quads. See Rects.
+     * Made from each character's cached rectangles, so rectangles don't cross from one character into the next.
+     *
+     * @return block rectangles
+     */
+    public int[] getRects() {
+        int count = 0;
+        for (Glyph g : glyphs)
+            count += g.rects().length;
+
+        int[] a = new int[count];
+        int i = 0;
+        for (int l = 0; l < getLineCount(); l++) {
+            int y = lineY[l];
+            for (int c = lineStart[l]; c < lineEnd[l]; c++) {
+                int x = charX[c];
+                int[] r = glyphs[c].rects();
+                for (int k = 0; k < r.length; k += 4) {
+                    a[i++] = x + r[k];
+                    a[i++] = y + r[k + 1];
+                    a[i++] = r[k + 2];
+                    a[i++] = r[k + 3];
+                }
+            }
+        }
+        return a;
+    }
+}
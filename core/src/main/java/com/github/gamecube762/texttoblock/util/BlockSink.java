@@ -0,0 +1,18 @@
+package com.github.gamecube762.texttoblock.util;
+
+/**
+ * Receives block positions one at a time, as plain ints.
+ *
+ * Used by forEachBlock(...) to stream text straight out of the packed glyph data, so exporters, previews and custom placers don't need a List of positions.
+ * Flat text is always given z = 0.
+ */
+@FunctionalInterface
+public interface BlockSink {
+
+    /**
+     * @param x offset along the text
+     * @param y offset up, from the bottom-left
+     * @param z offset in depth, 0 for flat text
+     */
+    void accept(int x, int y, int z);
+}
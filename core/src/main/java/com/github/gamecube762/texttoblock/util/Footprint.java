@@ -0,0 +1,166 @@
+package com.github.gamecube762.texttoblock.util;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The blocks of a piece of text, without a block type, in a small binary file; for pre-rendering text to paste later.
+ *
+ * Format, big endian:
+ * int magic "TTBF", byte version, byte orientation, varint span count, varint block count,
+ * then per span: zigzag varint y minus the previous y, zigzag varint x0 minus the previous x0, varint length.
+ * Text is mostly runs on the same or the next row close to the previous one, so most spans are 3 bytes.
+ */
+public final class Footprint {
+
+    public static final int MAGIC = 0x54544246;//TTBF
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".ttbf";
+
+    private final Orientation orientation;
+    private final int[] spans;
+    private final int blockCount;
+
+    private Footprint(Orientation orientation, int[] spans) {
+        this.orientation = orientation;
+        this.spans = spans;
+        this.blockCount = Spans.count(spans);
+    }
+
+    /**
+     * @param spans y,x0,x1 triples relative to the bottom-left of the first line, see Spans. Not copied
+     * @param orientation direction the text is written in
+     * @return footprint
+     */
+    public static Footprint of(int[] spans, Orientation orientation) {
+        return new Footprint(orientation, spans);
+    }
+
+    /**
+     * @param path file to read
+     * @return footprint
+     * @throws IOException if failed to read or not a footprint
+     */
+    public static Footprint load(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * @param in stream to read from, not closed
+     * @return footprint
+     * @throws IOException if failed to read or not a footprint
+     */
+    public static Footprint read(InputStream in) throws IOException {
+        DataInputStream d = new DataInputStream(in);
+        if (d.readInt() != MAGIC) throw new IOException("Not a footprint");
+        int version = d.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Unsupported footprint version " + version);
+        int o = d.readUnsignedByte();
+        if (o >= Orientation.values().length) throw new IOException("Bad orientation " + o);
+
+        int count = readVarInt(d), blocks = readVarInt(d);
+        if (count < 0 || count > Integer.MAX_VALUE / 3) throw new IOException("Bad span count " + count);
+
+        //Grown as spans are read rather than sized up front; a bad count runs out of input instead of allocating whatever it says
+        int[] spans = new int[Math.min(count, 1024) * 3];
+        int y = 0, x = 0;
+        for (int i = 0; i < count * 3; i += 3) {
+            //Deltas wrap the same way write(...) made them; the length is unsigned as a span can be longer than Integer.MAX_VALUE
+            y += zigzagDecode(readVarInt(d));
+            x += zigzagDecode(readVarInt(d));
+            long x1 = x + (readVarInt(d) & 0xFFFFFFFFL);
+            if (x1 <= x || x1 > Integer.MAX_VALUE)
+                throw new IOException(String.format("Bad span %s: y %s, x %s to %s", i / 3, y, x, x1));
+
+            if (i == spans.length)
+                spans = Arrays.copyOf(spans, (int) Math.min((long) count * 3, spans.length * 2L));
+            spans[i] = y;
+            spans[i + 1] = x;
+            spans[i + 2] = (int) x1;
+        }
+
+        Footprint f = new Footprint(Orientation.values()[o], spans);
+        if (f.blockCount != blocks) throw new IOException(String.format("Footprint has %s blocks, expected %s", f.blockCount, blocks));
+        return f;
+    }
+
+    /**
+     * @param path file to write to
+     * @throws IOException if failed to write
+     */
+    public void save(Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            write(out);
+        }
+    }
+
+    /**
+     * @param out stream to write to, flushed but not closed
+     * @throws IOException if failed to write
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream d = new DataOutputStream(out);
+        d.writeInt(MAGIC);
+        d.writeByte(VERSION);
+        d.writeByte(orientation.ordinal());
+        writeVarInt(d, spans.length / 3);
+        writeVarInt(d, blockCount);
+
+        int y = 0, x = 0;
+        for (int i = 0; i < spans.length; i += 3) {
+            writeVarInt(d, zigzagEncode(spans[i] - y));
+            writeVarInt(d, zigzagEncode(spans[i + 1] - x));
+            writeVarInt(d, spans[i + 2] - spans[i + 1]);
+            y = spans[i];
+            x = spans[i + 1];
+        }
+        d.flush();
+    }
+
+    public Orientation getOrientation() {
+        return orientation;
+    }
+
+    /**
+     * Get a copy of the row spans, y,x0,x1 triples. See Spans.
+     *
+     * @return block spans
+     */
+    public int[] getSpans() {
+        return spans.clone();
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    private static void writeVarInt(DataOutputStream d, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            d.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        d.writeByte(v);
+    }
+
+    private static int readVarInt(DataInputStream d) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = d.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("VarInt too long");
+    }
+
+    private static int zigzagEncode(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int zigzagDecode(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.gamecube762.texttoblock.util;
+
+import java.awt.*;
+
+/**
+ * A rendered character; its size and the mask of pixels that become blocks.
+ * Immutable; the spans and rectangles are worked out the first time they're needed and kept with the glyph.
+ *
+ * Has nothing to do with Sponge, so it can be rendered and laid out anywhere. The plugin's BlockCharacter adds pasting on top of it.
+ */
+public class Glyph {
+
+    public static final Glyph NEWLINE = new Glyph('\n', 0, 0, null, GlyphMask.EMPTY);
+
+    private final char character;
+    private final int width, height;
+    private final Font font;
+    private final GlyphMask mask;
+    private volatile int[] spans;//Built on first spans()
+    private volatile int[] rects;//Built on first rects()
+
+    /**
+     * @param character c
+     * @param width w
+     * @param height h
+     * @param font f
+     * @param mask m
+     */
+    public Glyph(char character, int width, int height, Font font, GlyphMask mask) {
+        this.character = character;
+        this.width = width;
+        this.height = height;
+        this.font = font;
+        this.mask = mask;
+    }
+
+    /**
+     * Draws the character with this thread's RenderContext.
+     *
+     * @param c character
+     * @param font font
+     * @return glyph, NEWLINE for \n
+     */
+    public static Glyph render(char c, Font font) {
+        if (c == '\n') return NEWLINE;
+        GlyphMask mask = RenderContext.get().render(c + "", font);
+        return new Glyph(c, mask.getWidth(), mask.getHeight(), font, mask);
+    }
+
+    /**
+     * Gives every block of this character to the sink, bottom row first. Nothing is allocated.
+     *
+     * @param sink receives x,y,0 of every block
+     */
+    public void forEachBlock(BlockSink sink) {
+        forEachBlock(sink, 0, 0);
+    }
+
+    /**
+     * Gives every block of this character to the sink with an offset added, bottom row first.
+     */
+    void forEachBlock(BlockSink sink, int offsetX, int offsetY) {
+        int[] s = spans();
+        for (int i = 0; i < s.length; i += 3) {
+            int y = offsetY + s[i];
+            for (int x = offsetX + s[i + 1], end = offsetX + s[i + 2]; x < end; x++)
+                sink.accept(x, y, 0);
+        }
+    }
+
+    /**
+     * Get the character this was based off of.
+     *
+     * @return character
+     */
+    public char asCharacter() {
+        return character;
+    }
+
+    /**
+     * Get the size of the font used;
+     *
+     * @return FontSize
+     */
+    public int getFontSize() {
+        return font.getSize();
+    }
+
+    /**
+     * Get the width of this character.
+     *
+     * @return width as int
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the height of this character.
+     *
+     * @return height as int
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the font used to make this character.
+     * @return font
+     */
+    public Font getFont() {
+        return font;
+    }
+
+    /**
+     * Get the packed mask of this character.
+     *
+     * @return mask
+     */
+    public GlyphMask getMask() {
+        return mask;
+    }
+
+    /**
+     * Get the row spans of this character; y,x0,x1 triples with x1 exclusive, bottom row first. See Spans.
+     *
+     * @return copy of the spans
+     */
+    public int[] getSpans() {
+        return spans().clone();
+    }
+
+    /**
+     * Shared spans, built the first time they're needed. Must not be changed.
+     */
+    int[] spans() {
+        int[] a = spans;
+        if (a == null)
+            spans = a = Spans.of(mask, 0, 0);
+        return a;
+    }
+
+    /**
+     * Get rectangles that together cover this character without overlapping; x,y,width,height quads. See Rects.
+     * Use these for region fills instead of placing every block on its own.
+     *
+     * @return copy of the rectangles
+     */
+    public int[] getRects() {
+        return rects().clone();
+    }
+
+    /**
+     * Shared rectangles, built the first time they're needed and kept with the glyph in the glyph cache. Must not be changed.
+     */
+    int[] rects() {
+        int[] a = rects;
+        if (a == null)
+            rects = a = Rects.of(mask, 0, 0);
+        return a;
+    }
+
+    /**
+     * Get the amount of blocks used to shape this character.
+     *
+     * @return block count
+     */
+    public int getBlockCount() {
+        return mask.count();
+    }
+}
@@ -0,0 +1,252 @@
+package com.github.gamecube762.texttoblock.util;
+
+import java.util.Arrays;
+
+/**
+ * A packed 1-bit mask of a glyph.
+ *
+ * Each row is stored as a run of longs, one bit per pixel, rows are stored one after another.
+ * Like BlockCharacter's block map, 0,0 is the bottom-left; row 0 is the bottom row.
+ */
+public final class GlyphMask {
+
+    public static final GlyphMask EMPTY = new GlyphMask(0, 0, new long[0]);
+
+    private final int width, height, wordsPerRow;
+    private final long[] bits;
+    private final int count;
+
+    private GlyphMask(int width, int height, long[] bits) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = wordsPerRow(width);
+        this.bits = bits;
+
+        int c = 0;
+        for (long l : bits)
+            c += Long.bitCount(l);
+        this.count = c;
+    }
+
+    /**
+     * Makes a mask from packed rows, like the ones from toLongArray().
+     *
+     * @param width width
+     * @param height height
+     * @param bits rows of wordsPerRow(width) longs, bottom row first. Used as-is, must not be changed afterwards.
+     * @return mask
+     * @throws IllegalArgumentException if the array is the wrong length for the size
+     */
+    public static GlyphMask of(int width, int height, long[] bits) {
+        if (width < 0 || height < 0 || bits.length != wordsPerRow(width) * height)
+            throw new IllegalArgumentException(String.format("%s longs can't be a %sx%s mask", bits.length, width, height));
+        return new GlyphMask(width, height, bits);
+    }
+
+    /**
+     * Amount of longs used to store a row of the given width.
+     *
+     * @param width row width
+     * @return longs per row
+     */
+    public static int wordsPerRow(int width) {
+        return (width + 63) >>> 6;
+    }
+
+    /**
+     * Is the pixel at x,y set.
+     * Returns false if out of bounds.
+     *
+     * @param x x
+     * @param y y, from the bottom
+     * @return true if there should be a block here
+     */
+    public boolean get(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Finds the next set pixel in the row, starting at fromX.
+     *
+     * for (int x = mask.nextSetBit(y, 0); x >= 0; x = mask.nextSetBit(y, x + 1))
+     *
+     * @param y row, from the bottom
+     * @param fromX x to start from, inclusive
+     * @return x of the next set pixel, or -1 if there is none
+     */
+    public int nextSetBit(int y, int fromX) {
+        if (width == 0 || fromX >= width || y < 0 || y >= height) return -1;//No words in a 0 wide row, even if fromX is negative
+        if (fromX < 0) fromX = 0;
+
+        int rowStart = y * wordsPerRow;
+        int w = fromX >>> 6;
+        long word = bits[rowStart + w] & (-1L << fromX);
+
+        while (true) {
+            if (word != 0)
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == wordsPerRow)
+                return -1;
+            word = bits[rowStart + w];
+        }
+    }
+
+    /**
+     * Finds the next unset pixel in the row, starting at fromX.
+     * Returns the width if the rest of the row is set.
+     *
+     * @param y row, from the bottom
+     * @param fromX x to start from, inclusive
+     * @return x of the next unset pixel
+     */
+    public int nextClearBit(int y, int fromX) {
+        if (width == 0 || fromX >= width || y < 0 || y >= height) return width;//No words in a 0 wide row, even if fromX is negative
+        if (fromX < 0) fromX = 0;
+
+        int rowStart = y * wordsPerRow;
+        int w = fromX >>> 6;
+        long word = ~bits[rowStart + w] & (-1L << fromX);
+
+        while (true) {
+            if (word != 0)
+                return Math.min(width, (w << 6) + Long.numberOfTrailingZeros(word));
+            if (++w == wordsPerRow)
+                return width;
+            word = ~bits[rowStart + w];
+        }
+    }
+
+    /**
+     * Is nothing set in this row.
+     *
+     * @param y row, from the bottom
+     * @return true if the row has no set pixel
+     */
+    public boolean isRowEmpty(int y) {
+        return nextSetBit(y, 0) < 0;
+    }
+
+    /**
+     * Amount of set pixels in the row.
+     *
+     * @param y row, from the bottom
+     * @return set pixels
+     */
+    public int rowCount(int y) {
+        if (y < 0 || y >= height) return 0;
+        int c = 0;
+        for (int i = y * wordsPerRow, end = i + wordsPerRow; i < end; i++)
+            c += Long.bitCount(bits[i]);
+        return c;
+    }
+
+    /**
+     * Amount of set pixels in the column.
+     *
+     * @param x column
+     * @return set pixels
+     */
+    public int columnCount(int x) {
+        if (x < 0 || x >= width) return 0;
+        int c = 0;
+        for (int y = 0; y < height; y++)
+            if (get(x, y))
+                c++;
+        return c;
+    }
+
+    /**
+     * Total amount of set pixels; the amount of blocks this glyph uses.
+     *
+     * @return set pixels
+     */
+    public int count() {
+        return count;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Copy of the packed rows, bottom row first. See of(...)
+     *
+     * @return packed rows
+     */
+    public long[] toLongArray() {
+        return bits.clone();
+    }
+
+    /**
+     * Approximate amount of bytes this mask's pixel data uses.
+     *
+     * @return bytes
+     */
+    public long sizeInBytes() {
+        return bits.length * 8L;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GlyphMask)) return false;
+        GlyphMask m = (GlyphMask) o;
+        return width == m.width && height == m.height && Arrays.equals(bits, m.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return (width * 31 + height) * 31 + Arrays.hashCode(bits);
+    }
+
+    /**
+     * Start building a mask of the given size.
+     *
+     * @param width width
+     * @param height height
+     * @return Builder
+     */
+    public static Builder builder(int width, int height) {
+        return new Builder(width, height);
+    }
+
+    public static final class Builder {
+        private final int width, height, wordsPerRow;
+        private long[] bits;
+
+        private Builder(int width, int height) {
+            if (width < 0 || height < 0)
+                throw new IllegalArgumentException(String.format("Invalid mask size %sx%s", width, height));
+            this.width = width;
+            this.height = height;
+            this.wordsPerRow = wordsPerRow(width);
+            this.bits = new long[wordsPerRow * height];
+        }
+
+        /**
+         * Sets the pixel at x,y
+         *
+         * @param x x
+         * @param y y, from the bottom
+         * @return this
+         * @throws IndexOutOfBoundsException if x,y is outside of the mask
+         */
+        public Builder set(int x, int y) {
+            if (x < 0 || y < 0 || x >= width || y >= height)
+                throw new IndexOutOfBoundsException(String.format("%s,%s is outside of %sx%s", x, y, width, height));
+            bits[y * wordsPerRow + (x >>> 6)] |= 1L << x;
+            return this;
+        }
+
+        public GlyphMask build() {
+            GlyphMask m = new GlyphMask(width, height, bits);
+            bits = null;//mask owns the array now
+            return m;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.gamecube762.texttoblock.util;
+
+import java.awt.*;
+
+/**
+ * Java Flight Recorder events, without needing jdk.jfr to build or run.
+ *
+ * The events themselves are in src/jfr/java, only built on JDK 11 and up. When they aren't in the jar, or the JVM has no jdk.jfr, INSTANCE is this no-op.
+ * Callers check is...Enabled() first and only then work out the fields; with the no-op, or while nothing is recording, that check is all it costs.
+ */
+public class JfrBridge {
+
+    public static final JfrBridge INSTANCE = load();
+
+    protected JfrBridge() {}
+
+    private static JfrBridge load() {
+        try {
+            return (JfrBridge) Class.forName("com.github.gamecube762.texttoblock.jfr.JfrEvents").getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError | ClassCastException ignore) {/*No jdk.jfr, or built without it*/}
+        return new JfrBridge();
+    }
+
+    /**
+     * @return false if the events aren't available at all
+     */
+    public boolean isAvailable() {
+        return false;
+    }
+
+    public boolean isGlyphRasterizedEnabled() {
+        return false;
+    }
+
+    /**
+     * A glyph was drawn by TextToBlockService#toBlockCharacter(...)
+     *
+     * @param font font
+     * @param c character
+     * @param pixels set pixels, the blocks it places
+     * @param nanos time taken
+     */
+    public void glyphRasterized(Font font, char c, int pixels, long nanos) {}
+
+    public boolean isFontLoadedEnabled() {
+        return false;
+    }
+
+    /**
+     * A font file was parsed by the FontManagerService.
+     *
+     * @param path font file
+     * @param proxied true if it was found through a .ttfproxy
+     * @param nanos time taken
+     * @param error error message, null if it loaded
+     */
+    public void fontLoaded(String path, boolean proxied, long nanos, String error) {}
+
+    public boolean isTextPastedEnabled() {
+        return false;
+    }
+
+    /**
+     * A BlockString was pasted in one go by BlockString#pasteAt(...)
+     *
+     * @param chars characters of the text
+     * @param blocks blocks placed
+     * @param world world name
+     * @param nanos time taken
+     */
+    public void textPasted(int chars, int blocks, String world, long nanos) {}
+
+    public boolean isPasteTickEnabled() {
+        return false;
+    }
+
+    /**
+     * A PasteJob placed blocks in one call of PasteJob#placeSome(...); once per job per tick while the PasteScheduler runs it.
+     *
+     * @param world world name
+     * @param blocks blocks placed by this call
+     * @param chunks chunks entered by this call
+     * @param nanos time taken
+     * @param placed blocks the job has placed so far
+     * @param total blocks the job places in all
+     * @param finished true if this call placed the job's last blocks
+     */
+    public void pasteTick(String world, int blocks, int chunks, long nanos, int placed, int total, boolean finished) {}
+}
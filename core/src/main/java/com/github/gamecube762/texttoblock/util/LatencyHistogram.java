@@ -0,0 +1,91 @@
+package com.github.gamecube762.texttoblock.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds, in power of two buckets.
+ *
+ * Recording is a couple of LongAdder adds, so it's cheap enough to leave on and can be recorded from many threads at once.
+ * Percentiles are only as exact as the buckets; they're given as the upper bound of the bucket they fall in, at most twice the real value.
+ */
+public class LatencyHistogram {
+
+    private final LongAdder[] buckets = new LongAdder[64];//bucket i holds [2^i, 2^(i+1)) nanos
+    private final LongAdder count = new LongAdder(), total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new LongAdder();
+    }
+
+    /**
+     * @param nanos duration, negative counts as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets[63 - Long.numberOfLeadingZeros(nanos | 1)].increment();
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return total.sum();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    public long getMeanNanos() {
+        long c = count.sum();
+        return c == 0 ? 0 : total.sum() / c;
+    }
+
+    /**
+     * Upper bound of the bucket the percentile falls in, never more than the max.
+     *
+     * @param percentile 0 to 100
+     * @return nanos, 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long c = count.sum();
+        if (c == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(c * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++)
+            if ((seen += buckets[i].sum()) >= rank)
+                return Math.min(max.get(), (1L << (i + 1)) - 1);
+        return max.get();
+    }
+
+    /**
+     * Forgets everything recorded so far. Records made at the same time may be partly kept.
+     */
+    public void reset() {
+        for (LongAdder b : buckets) b.reset();
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * @return "n=.. mean=..ms p50=..ms p99=..ms max=..ms"
+     */
+    @Override
+    public String toString() {
+        return String.format("n=%s mean=%s p50=%s p99=%s max=%s", getCount(), millis(getMeanNanos()), millis(getPercentileNanos(50)), millis(getPercentileNanos(99)), millis(getMaxNanos()));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.gamecube762.texttoblock.util;
+
+/**
+ * The direction text is written in when it's placed in the world. Text always goes up along y.
+ *
+ * EAST is +x, the direction pasteAt has always used.
+ */
+public enum Orientation {
+    EAST(1, 0),
+    SOUTH(0, 1),
+    WEST(-1, 0),
+    NORTH(0, -1);
+
+    private final int dx, dz;
+
+    Orientation(int dx, int dz) {
+        this.dx = dx;
+        this.dz = dz;
+    }
+
+    /**
+     * World x of a block that is x along the text.
+     *
+     * @param baseX x of the paste location
+     * @param x offset along the text
+     * @return world x
+     */
+    public int worldX(int baseX, int x) {
+        return baseX + dx * x;
+    }
+
+    /**
+     * World z of a block that is x along the text.
+     *
+     * @param baseZ z of the paste location
+     * @param x offset along the text
+     * @return world z
+     */
+    public int worldZ(int baseZ, int x) {
+        return baseZ + dz * x;
+    }
+
+    /**
+     * World x of a block that is d deep into the text. Depth goes clockwise from the text direction; south for EAST text.
+     *
+     * @param baseX x of the paste location
+     * @param d depth
+     * @return world x
+     */
+    public int depthX(int baseX, int d) {
+        return baseX - dz * d;
+    }
+
+    /**
+     * World z of a block that is d deep into the text. Depth goes clockwise from the text direction; south for EAST text.
+     *
+     * @param baseZ z of the paste location
+     * @param d depth
+     * @return world z
+     */
+    public int depthZ(int baseZ, int d) {
+        return baseZ + dx * d;
+    }
+
+    /**
+     * Does the text run along the x axis.
+     *
+     * @return true for EAST and WEST
+     */
+    public boolean isAlongX() {
+        return dx != 0;
+    }
+
+    /**
+     * Get the Orientation of the inputted String.
+     *
+     * @param s string
+     * @return Orientation, or null if unknown
+     */
+    public static Orientation of(String s) {
+        for (Orientation o : values())
+            if (o.name().toLowerCase().startsWith(s.toLowerCase()))//startswith allows us to accept E as East
+                return o;
+        return null;
+    }
+}
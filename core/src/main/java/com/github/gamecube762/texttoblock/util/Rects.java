@@ -0,0 +1,114 @@
+package com.github.gamecube762.texttoblock.util;
+
+import java.util.Arrays;
+
+/**
+ * Helpers for rectangles; x,y,width,height quads in an int[] that together cover a mask.
+ *
+ * Lets a caller fill a glyph with a handful of region fills, like a volume API or a WorldEdit style bulk setter, instead of a call per block.
+ * The decomposition is greedy, not minimal, but thick strokes come out as a few large rectangles.
+ */
+public final class Rects {
+
+    public static final int[] EMPTY = new int[0];
+
+    private Rects() {}
+
+    /**
+     * Covers the set pixels of the mask with rectangles that don't overlap.
+     *
+     * Goes through the rows bottom up; every pixel that isn't covered yet starts a rectangle as wide as its run,
+     * which is then grown upwards for as long as the row above is set, and not yet covered, over that whole width.
+     *
+     * @param mask mask
+     * @param offsetX added to every x
+     * @param offsetY added to every y
+     * @return x,y,width,height quads
+     */
+    public static int[] of(GlyphMask mask, int offsetX, int offsetY) {
+        int w = mask.getWidth(), h = mask.getHeight(), wpr = GlyphMask.wordsPerRow(w);
+        long[] left = mask.toLongArray();//Pixels not covered yet
+        int[] a = new int[16];
+        int n = 0;
+
+        for (int y = 0; y < h; y++)
+            for (int x = nextSet(left, y * wpr, w, 0); x >= 0; x = nextSet(left, y * wpr, w, x)) {
+                int end = nextClear(left, y * wpr, w, x);
+                clear(left, y * wpr, x, end);
+
+                int top = y + 1;
+                while (top < h && allSet(left, top * wpr, x, end))
+                    clear(left, top++ * wpr, x, end);
+
+                if (n + 4 > a.length)
+                    a = Arrays.copyOf(a, a.length * 2);
+                a[n++] = x + offsetX;
+                a[n++] = y + offsetY;
+                a[n++] = end - x;
+                a[n++] = top - y;
+            }
+        return n == 0 ? EMPTY : Arrays.copyOf(a, n);
+    }
+
+    /**
+     * Amount of blocks the rectangles cover.
+     *
+     * @param rects x,y,width,height quads
+     * @return block count
+     */
+    public static int count(int[] rects) {
+        int c = 0;
+        for (int i = 0; i < rects.length; i += 4)
+            c += rects[i + 2] * rects[i + 3];
+        return c;
+    }
+
+    private static int nextSet(long[] bits, int row, int width, int from) {
+        for (int x = from; x < width; ) {
+            long word = bits[row + (x >>> 6)] & (-1L << x);
+            if (word != 0) {
+                int i = (x & ~63) + Long.numberOfTrailingZeros(word);
+                return i < width ? i : -1;
+            }
+            x = (x & ~63) + 64;
+        }
+        return -1;
+    }
+
+    private static int nextClear(long[] bits, int row, int width, int from) {
+        for (int x = from; x < width; ) {
+            long word = ~bits[row + (x >>> 6)] & (-1L << x);
+            if (word != 0)
+                return Math.min(width, (x & ~63) + Long.numberOfTrailingZeros(word));
+            x = (x & ~63) + 64;
+        }
+        return width;
+    }
+
+    /**
+     * Are bits from to end, exclusive, all set in the row.
+     */
+    private static boolean allSet(long[] bits, int row, int from, int end) {
+        for (int x = from; x < end; x = (x & ~63) + 64) {
+            long m = rangeMask(x, end);
+            if ((bits[row + (x >>> 6)] & m) != m) return false;
+        }
+        return true;
+    }
+
+    private static void clear(long[] bits, int row, int from, int end) {
+        for (int x = from; x < end; x = (x & ~63) + 64)
+            bits[row + (x >>> 6)] &= ~rangeMask(x, end);
+    }
+
+    /**
+     * Bits from x to end, exclusive, within x's word.
+     */
+    private static long rangeMask(int x, int end) {
+        long m = -1L << x;
+        int wordEnd = (x & ~63) + 64;
+        if (end < wordEnd)
+            m &= -1L >>> (64 - (end & 63));
+        return m;
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.gamecube762.texttoblock.util;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+/**
+ * Per-thread scratch space for rasterizing text into GlyphMasks.
+ *
+ * Metrics come from a headless Graphics2D instead of a Swing component, and the scratch image is reused between glyphs; it only grows when a bigger glyph comes along.
+ * A context must only be used by the thread that got it from RenderContext.get().
+ */
+public final class RenderContext {
+
+    /**
+     * Scratch images bigger than this (in pixels) aren't kept around, a one-off image is used instead.
+     */
+    public static final int MAX_SCRATCH_PIXELS = 1 << 22;
+
+    private static final ThreadLocal<RenderContext> CONTEXT = ThreadLocal.withInitial(RenderContext::new);
+
+    private final Graphics2D metricsGraphics;
+    private BufferedImage scratch;
+    private Graphics2D scratchGraphics;
+    private byte[] scratchData;
+    private int scratchStride;
+
+    private RenderContext() {
+        metricsGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY).createGraphics();
+    }
+
+    /**
+     * Get the RenderContext of the current thread.
+     *
+     * @return this thread's RenderContext
+     */
+    public static RenderContext get() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * Get the metrics of the font, without Swing.
+     *
+     * @param font font
+     * @return FontMetrics
+     */
+    public FontMetrics getFontMetrics(Font font) {
+        return metricsGraphics.getFontMetrics(font);
+    }
+
+    /**
+     * Get the FontRenderContext glyphs are drawn with.
+     *
+     * @return FontRenderContext
+     */
+    public FontRenderContext getFontRenderContext() {
+        return metricsGraphics.getFontRenderContext();
+    }
+
+    /**
+     * Draws the text and returns its mask.
+     * Width is the advance of the text and height is the font's max ascent, same as TextToBlock has always used.
+     *
+     * @param text text to draw
+     * @param font font to use
+     * @return mask of the drawn text, 0,0 being bottom-left
+     */
+    public GlyphMask render(String text, Font font) {
+        FontMetrics metrics = getFontMetrics(font);
+        int width = metrics.stringWidth(text);
+        int height = metrics.getMaxAscent();
+
+        GlyphMask.Builder mask = GlyphMask.builder(width, height);
+        if (width == 0 || height == 0)//Zero-width chars; BufferedImage can't be 0 sized.
+            return mask.build();
+
+        if ((long) width * height > MAX_SCRATCH_PIXELS) {
+            BufferedImage bi = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g2d = bi.createGraphics();
+            draw(g2d, text, font, width, height);
+            g2d.dispose();
+
+            WritableRaster raster = bi.getRaster();
+            scan(((DataBufferByte) raster.getDataBuffer()).getData(), ((ComponentSampleModel) raster.getSampleModel()).getScanlineStride(), width, height, mask, false);
+            return mask.build();
+        }
+
+        ensureScratch(width, height);
+        draw(scratchGraphics, text, font, width, height);
+        scan(scratchData, scratchStride, width, height, mask, true);
+        return mask.build();
+    }
+
+    private static void draw(Graphics2D g2d, String text, Font font, int width, int height) {
+        g2d.setClip(0, 0, width, height);//Only the glyph's area is scanned and cleared; nothing may be drawn outside of it.
+        g2d.setFont(font);
+        g2d.setColor(Color.white);
+        g2d.drawString(text, 0, height);
+    }
+
+    private static void scan(byte[] data, int stride, int width, int height, GlyphMask.Builder mask, boolean clear) {
+        for (int y = 0, row = 0; y < height; y++, row += stride) {
+            for (int x = 0; x < width; x++)
+                if (data[row + x] != 0)
+                    mask.set(x, height-1-y);//Images 0,0 is at top-left; ours is from bot-left | Fixes upside-down text: https://www.youtube.com/watch?v=efjBHffmWRM
+            if (clear)
+                Arrays.fill(data, row, row + width, (byte) 0);
+        }
+    }
+
+    private void ensureScratch(int width, int height) {
+        if (scratch != null && scratch.getWidth() >= width && scratch.getHeight() >= height)
+            return;
+
+        int w = width, h = height;
+        if (scratch != null) {//Grow to fit both the old and new glyphs
+            w = Math.max(w, scratch.getWidth());
+            h = Math.max(h, scratch.getHeight());
+            if ((long) w * h > MAX_SCRATCH_PIXELS) {w = width; h = height;}
+            scratchGraphics.dispose();
+        }
+
+        scratch = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_GRAY);
+        scratchGraphics = scratch.createGraphics();
+        WritableRaster raster = scratch.getRaster();
+        scratchData = ((DataBufferByte) raster.getDataBuffer()).getData();
+        scratchStride = ((ComponentSampleModel) raster.getSampleModel()).getScanlineStride();
+    }
+}
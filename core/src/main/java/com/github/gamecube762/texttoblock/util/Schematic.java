@@ -0,0 +1,98 @@
+package com.github.gamecube762.texttoblock.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes row spans as a Sponge schematic (version 1); gzipped NBT with a single block type.
+ */
+public final class Schematic {
+
+    private Schematic() {}
+
+    /**
+     * Saves the spans as a schematic file.
+     *
+     * @param path file to write to
+     * @param spans y,x0,x1 triples relative to the bottom-left of the first line, see Spans
+     * @param orientation direction the text is written in
+     * @param blockId block to use, like minecraft:stone
+     * @throws IOException if failed to write
+     */
+    public static void save(Path path, int[] spans, Orientation orientation, String blockId) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(out, spans, orientation, blockId);
+        }
+    }
+
+    /**
+     * Writes the spans in the Sponge schematic format (version 1).
+     * The bottom-left of the text is the schematic's origin, the rest of the volume is air.
+     *
+     * @param out stream to write to, not closed
+     * @param spans y,x0,x1 triples relative to the bottom-left of the first line, see Spans
+     * @param orientation direction the text is written in
+     * @param blockId block to use, like minecraft:stone
+     * @throws IOException if failed to write
+     */
+    public static void write(OutputStream out, int[] spans, Orientation orientation, String blockId) throws IOException {
+        int minX = 0, minY = 0, maxX = -1, maxY = -1;
+        if (spans.length > 0) {
+            minX = minY = Integer.MAX_VALUE;
+            maxX = maxY = Integer.MIN_VALUE;
+            for (int i = 0; i < spans.length; i += 3) {
+                minY = Math.min(minY, spans[i]);
+                maxY = Math.max(maxY, spans[i]);
+                minX = Math.min(minX, spans[i + 1]);
+                maxX = Math.max(maxX, spans[i + 2] - 1);
+            }
+        }
+
+        //Worked out as long; spans far apart overflow an int
+        long width = Math.max(1, (long) maxX - minX + 1), height = Math.max(1, (long) maxY - minY + 1);
+        if (width > Short.MAX_VALUE || height > Short.MAX_VALUE || width * height > Integer.MAX_VALUE)
+            throw new IOException(String.format("Volume too big for a schematic: %sx%s", width, height));
+        int w = (int) width, h = (int) height;
+        int sx = orientation.isAlongX() ? w : 1;
+        int sz = orientation.isAlongX() ? 1 : w;
+
+        //Text offset x ends up at world offset 'dir * x'; the schematic starts at the lowest world offset.
+        int dir = orientation.worldX(0, 1) + orientation.worldZ(0, 1);
+        int start = dir > 0 ? minX : -maxX;
+
+        byte[] data = new byte[w * h];//Palette index per block, 0 air 1 block. Both fit in a single varint byte.
+        for (int i = 0; i < spans.length; i += 3) {
+            int y = spans[i] - minY;
+            for (int ox = spans[i + 1]; ox < spans[i + 2]; ox++) {
+                int along = dir * ox - start;
+                int x = orientation.isAlongX() ? along : 0, z = orientation.isAlongX() ? 0 : along;
+                data[x + z * sx + y * sx * sz] = 1;
+            }
+        }
+
+        int offX = orientation.isAlongX() ? start : 0;
+        int offZ = orientation.isAlongX() ? 0 : start;
+
+        GZIPOutputStream gz = new GZIPOutputStream(out);
+        DataOutputStream nbt = new DataOutputStream(gz);
+        nbt.writeByte(10); nbt.writeUTF("Schematic");//TAG_Compound
+        nbt.writeByte(3); nbt.writeUTF("Version"); nbt.writeInt(1);
+        nbt.writeByte(2); nbt.writeUTF("Width"); nbt.writeShort(sx);
+        nbt.writeByte(2); nbt.writeUTF("Height"); nbt.writeShort(h);
+        nbt.writeByte(2); nbt.writeUTF("Length"); nbt.writeShort(sz);
+        nbt.writeByte(11); nbt.writeUTF("Offset"); nbt.writeInt(3); nbt.writeInt(offX); nbt.writeInt(minY); nbt.writeInt(offZ);
+        nbt.writeByte(3); nbt.writeUTF("PaletteMax"); nbt.writeInt(2);
+        nbt.writeByte(10); nbt.writeUTF("Palette");
+            nbt.writeByte(3); nbt.writeUTF("minecraft:air"); nbt.writeInt(0);
+            nbt.writeByte(3); nbt.writeUTF(blockId); nbt.writeInt(1);
+        nbt.writeByte(0);
+        nbt.writeByte(7); nbt.writeUTF("BlockData"); nbt.writeInt(data.length); nbt.write(data);
+        nbt.writeByte(0);
+        nbt.flush();
+        gz.finish();
+    }
+}
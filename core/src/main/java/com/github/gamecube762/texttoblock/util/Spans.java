@@ -0,0 +1,148 @@
+package com.github.gamecube762.texttoblock.util;
+
+import java.util.Arrays;
+
+/**
+ * Helpers for row spans; horizontal runs of blocks stored as y,x0,x1 triples in an int[].
+ * x0 is inclusive and x1 exclusive, so a span places x1 - x0 blocks.
+ *
+ * Most rows of a glyph are a few long runs, so spans are a lot smaller than x,y pairs and let a paste do its per-row work once per run instead of once per block.
+ */
+public final class Spans {
+
+    public static final int[] EMPTY = new int[0];
+
+    private Spans() {}
+
+    /**
+     * Spans of the mask, bottom row first.
+     *
+     * @param mask mask
+     * @param offsetX added to every x
+     * @param offsetY added to every y
+     * @return y,x0,x1 triples
+     */
+    public static int[] of(GlyphMask mask, int offsetX, int offsetY) {
+        int n = 0;
+        for (int y = 0; y < mask.getHeight(); y++)
+            for (int x = mask.nextSetBit(y, 0); x >= 0; x = mask.nextSetBit(y, mask.nextClearBit(y, x)))
+                n++;
+
+        int[] a = new int[n * 3];
+        int i = 0;
+        for (int y = 0; y < mask.getHeight(); y++)
+            for (int x = mask.nextSetBit(y, 0); x >= 0; ) {
+                int end = mask.nextClearBit(y, x);
+                a[i++] = y + offsetY;
+                a[i++] = x + offsetX;
+                a[i++] = end + offsetX;
+                x = mask.nextSetBit(y, end);
+            }
+        return a;
+    }
+
+    /**
+     * Turns x,y pairs into spans, merging blocks that are next to each other on a row.
+     * Duplicate blocks are dropped. Spans come out sorted by y then x.
+     *
+     * @param offsets x,y pairs
+     * @return y,x0,x1 triples
+     */
+    public static int[] fromOffsets(int[] offsets) {
+        int n = offsets.length / 2;
+        if (n == 0) return EMPTY;
+
+        long[] keys = new long[n];//y in the high bits, x in the low bits; sorts by y then x
+        for (int i = 0; i < n; i++)
+            keys[i] = ((long) offsets[i * 2 + 1] << 32) | ((offsets[i * 2] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+        Arrays.sort(keys);
+
+        int[] a = new int[n * 3];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            int y = (int) (keys[i] >> 32), x = (int) keys[i] ^ Integer.MIN_VALUE;
+            if (k > 0 && a[k - 3] == y && a[k - 1] >= x) {//Touches the last span
+                a[k - 1] = Math.max(a[k - 1], x + 1);
+                continue;
+            }
+            a[k++] = y;
+            a[k++] = x;
+            a[k++] = x + 1;
+        }
+        return k == a.length ? a : Arrays.copyOf(a, k);
+    }
+
+    /**
+     * Turns spans into x,y pairs.
+     *
+     * @param spans y,x0,x1 triples
+     * @return x,y pairs
+     */
+    public static int[] toOffsets(int[] spans) {
+        int[] a = new int[count(spans) * 2];
+        int k = 0;
+        for (int i = 0; i < spans.length; i += 3)
+            for (int x = spans[i + 1]; x < spans[i + 2]; x++) {
+                a[k++] = x;
+                a[k++] = spans[i];
+            }
+        return a;
+    }
+
+    /**
+     * Scales the spans up; every block becomes a scale by scale square.
+     * Lets text be rendered at a small size and still be pasted big, without the glyphs growing.
+     *
+     * @param spans y,x0,x1 triples
+     * @param scale blocks per pixel along each side, 1 or less returns the spans as they are
+     * @return scaled spans
+     */
+    public static int[] scale(int[] spans, int scale) {
+        if (scale <= 1) return spans;
+
+        int[] a = new int[spans.length * scale];
+        int k = 0;
+        for (int i = 0; i < spans.length; i += 3)
+            for (int r = 0; r < scale; r++) {
+                a[k++] = spans[i] * scale + r;
+                a[k++] = spans[i + 1] * scale;
+                a[k++] = spans[i + 2] * scale;
+            }
+        return a;
+    }
+
+    /**
+     * Amount of blocks the spans place.
+     *
+     * @param spans y,x0,x1 triples
+     * @return block count
+     */
+    public static int count(int[] spans) {
+        int c = 0;
+        for (int i = 0; i < spans.length; i += 3)
+            c += spans[i + 2] - spans[i + 1];
+        return c;
+    }
+
+    /**
+     * Sorts the spans by x0 then y, so a paste goes along the text in order.
+     *
+     * @param spans y,x0,x1 triples
+     * @return sorted copy
+     */
+    public static int[] sortByX(int[] spans) {
+        int n = spans.length / 3;
+        long[] keys = new long[n];//x0 in the high bits, y in the low bits; index of the span kept separately
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) spans[i * 3 + 1] << 32) | ((spans[i * 3] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        int[] out = new int[n * 3];
+        for (int i = 0; i < n; i++)
+            System.arraycopy(spans, order[i] * 3, out, i * 3, 3);
+        return out;
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.gamecube762.texttoblock.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BlockLayoutTest {
+
+    private static final Map<Character, Glyph> GLYPHS = new HashMap<>();
+    static {
+        GLYPHS.put('a', full('a', 3, 4));
+        GLYPHS.put('b', full('b', 5, 2));
+        GLYPHS.put(' ', new Glyph(' ', 2, 0, null, GlyphMask.EMPTY));
+    }
+
+    @Test
+    public void singleLine() {
+        BlockLayout<Glyph> l = BlockLayout.of("ab a", GLYPHS, Glyph.NEWLINE, Alignment.LEFT);
+        assertEquals(1, l.getLineCount());
+        assertEquals(13, l.getWidth());
+        assertEquals(4, l.getHeight());
+        assertEquals(0, l.getLineY(0));
+        assertEquals(0, l.getCharX(0));
+        assertEquals(3, l.getCharX(1));
+        assertEquals(8, l.getCharX(2));
+        assertEquals(10, l.getCharX(3));
+        assertEquals(12 + 10 + 12, l.getBlockCount());
+    }
+
+    @Test
+    public void linesGoDown() {
+        BlockLayout<Glyph> l = BlockLayout.of("a\nbb\n\nb", GLYPHS, Glyph.NEWLINE, Alignment.LEFT);
+        assertEquals(4, l.getLineCount());
+        assertEquals("bb", l.getLine(1));
+        assertEquals("", l.getLine(2));
+        assertEquals(2, l.getLineStart(1));
+        assertEquals(4, l.getLineEnd(1));
+        assertEquals(0, l.getLineY(0));
+        assertEquals(-2, l.getLineY(1));
+        assertEquals(-2, l.getLineY(2));
+        assertEquals(-4, l.getLineY(3));
+    }
+
+    @Test
+    public void alignment() {
+        BlockLayout<Glyph> l = BlockLayout.of("a\nbb", GLYPHS, Glyph.NEWLINE, Alignment.LEFT);
+        assertEquals(0, l.getLineX(0));
+        BlockLayout<Glyph> c = l.withAlignment(Alignment.CENTER);
+        assertEquals(5 - 1, c.getLineX(0));
+        assertEquals(0, c.getLineX(1));
+        BlockLayout<Glyph> r = l.withAlignment(Alignment.RIGHT);
+        assertEquals(10 - 3, r.getLineX(0));
+        assertEquals(7, r.getCharX(0));
+        assertSame(r, r.withAlignment(Alignment.RIGHT));
+    }
+
+    @Test
+    public void spansRectsAndOffsetsAgree() {
+        BlockLayout<Glyph> l = BlockLayout.of("ab\n a b", GLYPHS, Glyph.NEWLINE, Alignment.CENTER);
+        int[] offsets = l.getOffsets();
+        assertEquals(l.getBlockCount() * 2, offsets.length);
+        assertArrayEquals(Spans.fromOffsets(offsets), Spans.fromOffsets(Spans.toOffsets(l.getSpans())));
+        assertEquals(l.getBlockCount(), Rects.count(l.getRects()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingGlyph() {
+        BlockLayout.of("abc", GLYPHS, Glyph.NEWLINE, Alignment.LEFT);
+    }
+
+    private static Glyph full(char c, int width, int height) {
+        GlyphMask.Builder b = GlyphMask.builder(width, height);
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                b.set(x, y);
+        return new Glyph(c, width, height, null, b.build());
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.gamecube762.texttoblock.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class FootprintTest {
+
+    @Test
+    public void roundTrip() throws IOException {
+        int[] spans = {0, 0, 3,  0, 5, 9,  1, -2, 1,  4, 100, 101,  -7, Integer.MAX_VALUE - 10, Integer.MAX_VALUE};
+        for (Orientation o : Orientation.values()) {
+            Footprint f = read(write(Footprint.of(spans, o)));
+            assertEquals(o, f.getOrientation());
+            assertArrayEquals(spans, f.getSpans());
+            assertEquals(Spans.count(spans), f.getBlockCount());
+        }
+    }
+
+    @Test
+    public void roundTripExtremeValues() throws IOException {
+        int[] spans = {Integer.MIN_VALUE, -1, 0,  0, Integer.MIN_VALUE, Integer.MIN_VALUE + 2,  Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MAX_VALUE,
+                Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE};//Deltas and lengths past int range
+        Footprint f = read(write(Footprint.of(spans, Orientation.WEST)));
+        assertArrayEquals(spans, f.getSpans());
+        assertEquals(Spans.count(spans), f.getBlockCount());
+    }
+
+    @Test
+    public void roundTripEmpty() throws IOException {
+        Footprint f = read(write(Footprint.of(new int[0], Orientation.EAST)));
+        assertEquals(0, f.getSpans().length);
+        assertEquals(0, f.getBlockCount());
+    }
+
+    @Test
+    public void roundTripManySpans() throws IOException {
+        int[] spans = new int[5000 * 3];//More than the first chunk read() allocates
+        for (int i = 0; i < spans.length; i += 3) {
+            spans[i] = i / 30;
+            spans[i + 1] = i % 30 * 2;
+            spans[i + 2] = spans[i + 1] + 1 + i % 4;
+        }
+        assertArrayEquals(spans, read(write(Footprint.of(spans, Orientation.SOUTH))).getSpans());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsBadMagic() throws IOException {
+        byte[] b = write(Footprint.of(new int[]{0, 0, 1}, Orientation.EAST));
+        b[0] = 0;
+        read(b);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsEmptySpan() throws IOException {
+        read(header(1, 0, 0, 0, 0));//y 0, x 0, length 0
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsSpanPastIntRange() throws IOException {
+        read(header(1, 1, 0, 0xFFFFFFFE, 2));//x Integer.MAX_VALUE, length 2
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsCountLargerThanInput() throws IOException {
+        read(header(Integer.MAX_VALUE / 3, 1, 0, 0, 1));//Runs out of input after one span, without allocating for the count
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsWrongBlockCount() throws IOException {
+        read(header(1, 5, 0, 0, 1));
+    }
+
+    private static byte[] write(Footprint f) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        f.write(out);
+        return out.toByteArray();
+    }
+
+    private static Footprint read(byte[] b) throws IOException {
+        return Footprint.read(new ByteArrayInputStream(b));
+    }
+
+    /**
+     * A footprint header followed by the given varints, written as is.
+     */
+    private static byte[] header(int count, int blocks, int... varints) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream d = new DataOutputStream(out);
+        d.writeInt(Footprint.MAGIC);
+        d.writeByte(Footprint.VERSION);
+        d.writeByte(Orientation.EAST.ordinal());
+        writeVarInt(d, count);
+        writeVarInt(d, blocks);
+        for (int v : varints)
+            writeVarInt(d, v);
+        return out.toByteArray();
+    }
+
+    private static void writeVarInt(DataOutputStream d, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            d.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        d.writeByte(v);
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.gamecube762.texttoblock.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GlyphMaskTest {
+
+    @Test
+    public void nextSetBitAcrossWords() {
+        GlyphMask m = row(130, 0, 63, 64, 129);
+        assertEquals(0, m.nextSetBit(0, 0));
+        assertEquals(63, m.nextSetBit(0, 1));
+        assertEquals(63, m.nextSetBit(0, 63));
+        assertEquals(64, m.nextSetBit(0, 64));
+        assertEquals(129, m.nextSetBit(0, 65));
+        assertEquals(129, m.nextSetBit(0, 129));
+        assertEquals(-1, m.nextSetBit(0, 130));
+    }
+
+    @Test
+    public void nextClearBitAcrossWords() {
+        GlyphMask.Builder b = GlyphMask.builder(130, 1);
+        for (int x = 10; x < 129; x++) b.set(x, 0);
+        GlyphMask m = b.build();
+        assertEquals(0, m.nextClearBit(0, 0));
+        assertEquals(129, m.nextClearBit(0, 10));
+        assertEquals(129, m.nextClearBit(0, 64));
+        assertEquals(130, m.nextClearBit(0, 130));
+    }
+
+    @Test
+    public void nextClearBitOfFullRowIsWidth() {
+        for (int w : new int[]{1, 63, 64, 65, 128}) {
+            GlyphMask.Builder b = GlyphMask.builder(w, 1);
+            for (int x = 0; x < w; x++) b.set(x, 0);
+            GlyphMask m = b.build();
+            assertEquals(w, m.nextClearBit(0, 0));
+            assertEquals(w, m.nextClearBit(0, w - 1));
+            assertEquals(-1, m.nextSetBit(0, w));
+        }
+    }
+
+    @Test
+    public void negativeFromXStartsAtZero() {
+        GlyphMask m = row(70, 0, 65);
+        assertEquals(0, m.nextSetBit(0, -1));
+        assertEquals(0, m.nextSetBit(0, Integer.MIN_VALUE));
+        assertEquals(1, m.nextClearBit(0, -5));
+    }
+
+    @Test
+    public void rowOutOfRange() {
+        GlyphMask m = row(10, 3);
+        assertEquals(-1, m.nextSetBit(-1, 0));
+        assertEquals(-1, m.nextSetBit(1, 0));
+        assertEquals(10, m.nextClearBit(-1, 0));
+        assertEquals(10, m.nextClearBit(1, 0));
+    }
+
+    @Test
+    public void zeroWidth() {
+        GlyphMask m = GlyphMask.builder(0, 3).build();
+        for (int from : new int[]{Integer.MIN_VALUE, -1, 0, 1}) {
+            assertEquals(-1, m.nextSetBit(1, from));
+            assertEquals(0, m.nextClearBit(1, from));
+        }
+        assertEquals(-1, GlyphMask.EMPTY.nextSetBit(0, -1));
+        assertEquals(0, GlyphMask.EMPTY.nextClearBit(0, -1));
+    }
+
+    @Test
+    public void emptyRow() {
+        GlyphMask m = GlyphMask.builder(200, 2).set(5, 1).build();
+        assertEquals(-1, m.nextSetBit(0, 0));
+        assertEquals(0, m.nextClearBit(0, 0));
+        assertEquals(199, m.nextClearBit(0, 199));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ofRejectsWrongLength() {
+        GlyphMask.of(65, 2, new long[3]);
+    }
+
+    private static GlyphMask row(int width, int... set) {
+        GlyphMask.Builder b = GlyphMask.builder(width, 1);
+        for (int x : set) b.set(x, 0);
+        return b.build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.gamecube762.texttoblock.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RectsTest {
+
+    @Test
+    public void coversRandomMasksExactly() {
+        Random r = new Random(762);
+        int[][] sizes = {{1, 1}, {7, 9}, {63, 5}, {64, 4}, {65, 6}, {130, 20}};
+        for (int[] s : sizes)
+            for (int fill : new int[]{10, 50, 90}) {
+                GlyphMask m = random(r, s[0], s[1], fill);
+                assertCovers(m, Rects.of(m, 0, 0));
+            }
+    }
+
+    @Test
+    public void fullMaskIsOneRect() {
+        GlyphMask.Builder b = GlyphMask.builder(70, 12);
+        for (int y = 0; y < 12; y++)
+            for (int x = 0; x < 70; x++)
+                b.set(x, y);
+        assertArrayEquals(new int[]{0, 0, 70, 12}, Rects.of(b.build(), 0, 0));
+    }
+
+    @Test
+    public void emptyMask() {
+        assertEquals(0, Rects.of(GlyphMask.builder(20, 20).build(), 0, 0).length);
+        assertEquals(0, Rects.of(GlyphMask.EMPTY, 0, 0).length);
+    }
+
+    @Test
+    public void offsetsAreAdded() {
+        GlyphMask m = random(new Random(1), 40, 10, 60);
+        int[] a = Rects.of(m, 0, 0), b = Rects.of(m, -5, 100);
+        assertEquals(a.length, b.length);
+        for (int i = 0; i < a.length; i += 4) {
+            assertEquals(a[i] - 5, b[i]);
+            assertEquals(a[i + 1] + 100, b[i + 1]);
+            assertEquals(a[i + 2], b[i + 2]);
+            assertEquals(a[i + 3], b[i + 3]);
+        }
+    }
+
+    /**
+     * Every set pixel is covered by exactly one rectangle, and nothing else is covered.
+     */
+    private static void assertCovers(GlyphMask m, int[] rects) {
+        int[][] covered = new int[m.getHeight()][m.getWidth()];
+        for (int i = 0; i < rects.length; i += 4) {
+            assertTrue(rects[i + 2] > 0 && rects[i + 3] > 0);
+            for (int y = rects[i + 1]; y < rects[i + 1] + rects[i + 3]; y++)
+                for (int x = rects[i]; x < rects[i] + rects[i + 2]; x++) {
+                    assertTrue(String.format("%s,%s isn't set", x, y), m.get(x, y));
+                    assertEquals(String.format("%s,%s covered twice", x, y), 0, covered[y][x]++);
+                }
+        }
+        for (int y = 0; y < m.getHeight(); y++)
+            for (int x = 0; x < m.getWidth(); x++)
+                assertEquals(String.format("%s,%s", x, y), m.get(x, y) ? 1 : 0, covered[y][x]);
+        assertEquals(m.count(), Rects.count(rects));
+    }
+
+    private static GlyphMask random(Random r, int width, int height, int fillPercent) {
+        GlyphMask.Builder b = GlyphMask.builder(width, height);
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                if (r.nextInt(100) < fillPercent)
+                    b.set(x, y);
+        return b.build();
+    }
+}
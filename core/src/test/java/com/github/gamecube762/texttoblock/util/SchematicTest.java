@@ -0,0 +1,72 @@
+package com.github.gamecube762.texttoblock.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class SchematicTest {
+
+    @Test
+    public void sizeAlongX() throws IOException {
+        int[] size = size(new int[]{0, 0, 5,  3, 1, 2}, Orientation.EAST);
+        assertArrayEquals(new int[]{5, 4, 1}, size);
+    }
+
+    @Test
+    public void sizeAlongZ() throws IOException {
+        int[] size = size(new int[]{-2, 0, 5,  3, 1, 2}, Orientation.NORTH);
+        assertArrayEquals(new int[]{1, 6, 5}, size);
+    }
+
+    @Test
+    public void emptyIsOneBlock() throws IOException {
+        assertArrayEquals(new int[]{1, 1, 1}, size(new int[0], Orientation.WEST));
+    }
+
+    @Test
+    public void widestThatFits() throws IOException {
+        assertArrayEquals(new int[]{Short.MAX_VALUE, 1, 1}, size(new int[]{0, 0, Short.MAX_VALUE}, Orientation.EAST));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTooWide() throws IOException {
+        size(new int[]{0, 0, Short.MAX_VALUE + 1}, Orientation.EAST);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTooTall() throws IOException {
+        size(new int[]{0, 0, 1,  Short.MAX_VALUE, 0, 1}, Orientation.SOUTH);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsSpansPastIntRange() throws IOException {
+        size(new int[]{0, Integer.MIN_VALUE, Integer.MIN_VALUE + 1,  0, Integer.MAX_VALUE - 1, Integer.MAX_VALUE}, Orientation.EAST);
+    }
+
+    /**
+     * Writes the spans and reads back Width, Height and Length.
+     */
+    private static int[] size(int[] spans, Orientation o) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Schematic.write(out, spans, o, "minecraft:stone");
+
+        DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+        assertEquals(10, in.readByte());
+        assertEquals("Schematic", in.readUTF());
+        assertEquals(3, in.readByte()); assertEquals("Version", in.readUTF()); assertEquals(1, in.readInt());
+        int[] size = new int[3];
+        String[] names = {"Width", "Height", "Length"};
+        for (int i = 0; i < 3; i++) {
+            assertEquals(2, in.readByte());
+            assertEquals(names[i], in.readUTF());
+            size[i] = in.readShort();
+        }
+        return size;
+    }
+}
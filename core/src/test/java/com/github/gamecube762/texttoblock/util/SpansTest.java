@@ -0,0 +1,116 @@
+package com.github.gamecube762.texttoblock.util;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class SpansTest {
+
+    @Test
+    public void ofMatchesMask() {
+        Random r = new Random(762);
+        for (int w : new int[]{1, 63, 64, 65, 130}) {
+            GlyphMask m = random(r, w, 9);
+            int[] spans = Spans.of(m, 0, 0);
+            assertEquals(pixels(m, 0, 0), blocks(Spans.toOffsets(spans)));
+            assertEquals(m.count(), Spans.count(spans));
+            for (int i = 0; i < spans.length; i += 3) {
+                assertTrue(spans[i + 2] > spans[i + 1]);
+                if (i > 0 && spans[i - 3] == spans[i])
+                    assertTrue("Spans next to each other weren't merged", spans[i - 1] < spans[i + 1]);
+            }
+        }
+    }
+
+    @Test
+    public void offsetsRoundTrip() {
+        Random r = new Random(4);
+        for (int i = 0; i < 20; i++) {
+            int[] spans = Spans.of(random(r, 1 + r.nextInt(100), 1 + r.nextInt(20)), r.nextInt(200) - 100, r.nextInt(200) - 100);
+            assertArrayEquals(spans, Spans.fromOffsets(Spans.toOffsets(spans)));
+        }
+    }
+
+    @Test
+    public void fromOffsetsMergesAndDropsDuplicates() {
+        int[] offsets = {3, 0,  1, 0,  2, 0,  2, 0,  0, 0,  5, 0,  0, -1,  0, 2};
+        assertArrayEquals(new int[]{-1, 0, 1,  0, 0, 4,  0, 5, 6,  2, 0, 1}, Spans.fromOffsets(offsets));
+    }
+
+    @Test
+    public void fromOffsetsExtremeValues() {
+        int[] offsets = {Integer.MIN_VALUE, 0,  Integer.MIN_VALUE + 1, 0,  -1, Integer.MIN_VALUE,  Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        int[] spans = Spans.fromOffsets(offsets);
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, -1, 0,  0, Integer.MIN_VALUE, Integer.MIN_VALUE + 2,  Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MAX_VALUE}, spans);
+        assertEquals(blocks(offsets), blocks(Spans.toOffsets(spans)));
+    }
+
+    @Test
+    public void fromOffsetsEmpty() {
+        assertEquals(0, Spans.fromOffsets(new int[0]).length);
+        assertEquals(0, Spans.toOffsets(new int[0]).length);
+    }
+
+    @Test
+    public void scaleRoundTrip() {
+        int[] spans = Spans.of(random(new Random(9), 40, 12), -3, -7);
+        for (int k = 2; k <= 4; k++) {
+            int[] scaled = Spans.scale(spans, k);
+            assertEquals(Spans.count(spans) * k * k, Spans.count(scaled));
+
+            Set<Long> expected = new HashSet<>();
+            int[] o = Spans.toOffsets(spans);
+            for (int i = 0; i < o.length; i += 2)
+                for (int dy = 0; dy < k; dy++)
+                    for (int dx = 0; dx < k; dx++)
+                        expected.add(key(o[i] * k + dx, o[i + 1] * k + dy));
+            assertEquals(expected, blocks(Spans.toOffsets(scaled)));
+
+            Set<Long> down = new HashSet<>();//Every scaled block maps back onto the block it came from
+            int[] so = Spans.toOffsets(scaled);
+            for (int i = 0; i < so.length; i += 2)
+                down.add(key(Math.floorDiv(so[i], k), Math.floorDiv(so[i + 1], k)));
+            assertEquals(blocks(o), down);
+        }
+    }
+
+    @Test
+    public void scaleOfOneIsUnchanged() {
+        int[] spans = {0, 0, 3,  2, -1, 4};
+        assertSame(spans, Spans.scale(spans, 1));
+        assertSame(spans, Spans.scale(spans, 0));
+    }
+
+    private static Set<Long> pixels(GlyphMask m, int offsetX, int offsetY) {
+        Set<Long> s = new HashSet<>();
+        for (int y = 0; y < m.getHeight(); y++)
+            for (int x = 0; x < m.getWidth(); x++)
+                if (m.get(x, y))
+                    s.add(key(x + offsetX, y + offsetY));
+        return s;
+    }
+
+    private static Set<Long> blocks(int[] offsets) {
+        Set<Long> s = new HashSet<>();
+        for (int i = 0; i < offsets.length; i += 2)
+            s.add(key(offsets[i], offsets[i + 1]));
+        return s;
+    }
+
+    private static long key(int x, int y) {
+        return ((long) y << 32) | (x & 0xFFFFFFFFL);
+    }
+
+    private static GlyphMask random(Random r, int width, int height) {
+        GlyphMask.Builder b = GlyphMask.builder(width, height);
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                if (r.nextBoolean())
+                    b.set(x, y);
+        return b.build();
+    }
+}
@@ -0,0 +1,237 @@
+package com.github.gamecube762.texttoblock;
+
+import com.github.gamecube762.texttoblock.services.GlyphAtlas;
+import com.github.gamecube762.texttoblock.services.PasteScheduler;
+import com.github.gamecube762.texttoblock.services.TextToBlockService;
+import com.github.gamecube762.texttoblock.util.Alignment;
+import ninja.leaping.configurate.ConfigurationNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An immutable snapshot of the plugin config.
+ *
+ * The config is read once into this, so nothing has to walk the ConfigurationNode on a hot path.
+ * On /ttb reload a new snapshot is made and swapped in.
+ */
+public final class Settings {
+
+    private final String defaultFont;
+    private final int defaultFontSize;
+    private final Alignment defaultAlignment;
+    private final List<String> extraScanDirs;
+    private final int fontLoadThreads;
+    private final int glyphCacheSize;
+    private final int parallelThreshold;
+    private final int renderThreads;
+    private final int pasteMaxBlocksPerTick;
+    private final long pasteMaxMillisPerTick;
+    private final int pasteMaxScale, pasteMaxDepth;
+    private final boolean atlasEnabled;
+    private final long atlasMaxSizeMB;
+    private final List<Prewarm> prewarm;
+
+    private Settings(ConfigurationNode config) {
+        defaultFont = config.getNode("defaults", "font").getString("arial");
+        defaultFontSize = config.getNode("defaults", "fontsize").getInt(16);
+        Alignment a = Alignment.of(config.getNode("defaults", "alignment").getString("left"));
+        defaultAlignment = a == null ? Alignment.LEFT : a;
+
+        extraScanDirs = Collections.unmodifiableList(new ArrayList<>(config.getNode("fontmanager", "extraScanDirs").getList(o -> (String) o)));
+        fontLoadThreads = config.getNode("fontmanager", "loadThreads").getInt(0);
+
+        glyphCacheSize = config.getNode("texttoblock", "glyphCacheSize").getInt(TextToBlockService.DEFAULT_GLYPH_CACHE_SIZE);
+        parallelThreshold = config.getNode("texttoblock", "parallelThreshold").getInt(TextToBlockService.DEFAULT_PARALLEL_THRESHOLD);
+        renderThreads = config.getNode("texttoblock", "renderThreads").getInt(0);
+
+        pasteMaxBlocksPerTick = config.getNode("paste", "maxBlocksPerTick").getInt(PasteScheduler.DEFAULT_MAX_BLOCKS_PER_TICK);
+        pasteMaxMillisPerTick = config.getNode("paste", "maxMillisPerTick").getLong(PasteScheduler.DEFAULT_MAX_MILLIS_PER_TICK);
+        pasteMaxScale = config.getNode("paste", "maxScale").getInt(16);
+        pasteMaxDepth = config.getNode("paste", "maxDepth").getInt(16);
+
+        atlasEnabled = config.getNode("atlas", "enabled").getBoolean(true);
+        atlasMaxSizeMB = config.getNode("atlas", "maxSizeMB").getLong(GlyphAtlas.DEFAULT_MAX_SIZE_MB);
+
+        List<Prewarm> p = new ArrayList<>();
+        for (ConfigurationNode n : config.getNode("prewarm").getChildrenList())
+            p.add(new Prewarm(n.getNode("font").getString(Prewarm.DEFAULT_FONT), n.getNode("size").getInt(defaultFontSize), Prewarm.charset(n.getNode("charset").getString("ascii"))));
+        prewarm = Collections.unmodifiableList(p);
+    }
+
+    /**
+     * Reads the config into a Settings snapshot. Missing values use their defaults.
+     *
+     * @param config root config node
+     * @return Settings
+     */
+    public static Settings of(ConfigurationNode config) {
+        return new Settings(config);
+    }
+
+    /**
+     * @return name of the font to use when none is given; defaults.font
+     */
+    public String getDefaultFont() {
+        return defaultFont;
+    }
+
+    /**
+     * @return size to use when none is given; defaults.fontsize
+     */
+    public int getDefaultFontSize() {
+        return defaultFontSize;
+    }
+
+    /**
+     * @return alignment to use when none or an unknown one is given; defaults.alignment
+     */
+    public Alignment getDefaultAlignment() {
+        return defaultAlignment;
+    }
+
+    /**
+     * @return extra directories to scan for fonts; fontmanager.extraScanDirs
+     */
+    public List<String> getExtraScanDirs() {
+        return extraScanDirs;
+    }
+
+    /**
+     * @return threads used to load fonts, 0 or less to pick from the CPU count; fontmanager.loadThreads
+     */
+    public int getFontLoadThreads() {
+        return fontLoadThreads;
+    }
+
+    /**
+     * @return max glyphs kept in the glyph cache; texttoblock.glyphCacheSize
+     */
+    public int getGlyphCacheSize() {
+        return glyphCacheSize;
+    }
+
+    /**
+     * @return distinct characters needed before a string is rendered in parallel; texttoblock.parallelThreshold
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * @return threads used to render glyphs in parallel, 0 or less for the common pool; texttoblock.renderThreads
+     */
+    public int getRenderThreads() {
+        return renderThreads;
+    }
+
+    /**
+     * @return max blocks pasted per tick; paste.maxBlocksPerTick
+     */
+    public int getPasteMaxBlocksPerTick() {
+        return pasteMaxBlocksPerTick;
+    }
+
+    /**
+     * @return max milliseconds of main thread time spent pasting per tick; paste.maxMillisPerTick
+     */
+    public long getPasteMaxMillisPerTick() {
+        return pasteMaxMillisPerTick;
+    }
+
+    /**
+     * @return largest scale /ttb -x allows; paste.maxScale
+     */
+    public int getPasteMaxScale() {
+        return pasteMaxScale;
+    }
+
+    /**
+     * @return largest depth /ttb -d allows; paste.maxDepth
+     */
+    public int getPasteMaxDepth() {
+        return pasteMaxDepth;
+    }
+
+    /**
+     * @return keep rendered glyphs on disk between restarts; atlas.enabled
+     */
+    public boolean isAtlasEnabled() {
+        return atlasEnabled;
+    }
+
+    /**
+     * @return max megabytes the glyph atlas may use on disk; atlas.maxSizeMB
+     */
+    public long getAtlasMaxSizeMB() {
+        return atlasMaxSizeMB;
+    }
+
+    /**
+     * @return font/size/charset combinations to render in the background after fonts load; prewarm
+     */
+    public List<Prewarm> getPrewarm() {
+        return prewarm;
+    }
+
+    /**
+     * A font, size and the characters to pre-warm for them.
+     */
+    public static final class Prewarm {
+
+        public static final String DEFAULT_FONT = "default";
+
+        private final String font;
+        private final int size;
+        private final String characters;
+
+        public Prewarm(String font, int size, String characters) {
+            this.font = font;
+            this.size = size;
+            this.characters = characters;
+        }
+
+        /**
+         * Characters of a named charset; "ascii" for printable ASCII, "latin1" for printable Latin-1.
+         * Anything else is used as the characters themselves.
+         *
+         * @param charset charset name or characters
+         * @return characters
+         */
+        public static String charset(String charset) {
+            switch (charset.toLowerCase(Locale.ROOT)) {
+                case "ascii": return range(0x20, 0x7E);
+                case "latin1": return range(0x20, 0x7E) + range(0xA1, 0xFF);
+                default: return charset.chars().distinct().collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString();
+            }
+        }
+
+        private static String range(int from, int to) {
+            StringBuilder sb = new StringBuilder(to - from + 1);
+            for (int c = from; c <= to; c++)
+                sb.append((char) c);
+            return sb.toString();
+        }
+
+        /**
+         * @return font name, "default" for the default font
+         */
+        public String getFont() {
+            return font;
+        }
+
+        public boolean isDefaultFont() {
+            return DEFAULT_FONT.equalsIgnoreCase(font);
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public String getCharacters() {
+            return characters;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.github.gamecube762.texttoblock;
+
+import com.github.gamecube762.texttoblock.services.FontManager;
+import com.github.gamecube762.texttoblock.services.FontManagerService;
+import com.github.gamecube762.texttoblock.services.GlyphAtlas;
+import com.github.gamecube762.texttoblock.services.GlyphCache;
+import com.github.gamecube762.texttoblock.services.GlyphPrewarmer;
+import com.github.gamecube762.texttoblock.services.PasteScheduler;
+import com.github.gamecube762.texttoblock.services.TextToBlock;
+import com.github.gamecube762.texttoblock.services.TextToBlockService;
+import com.github.gamecube762.texttoblock.util.Alignment;
+import com.github.gamecube762.texttoblock.util.BlockString;
+import com.github.gamecube762.texttoblock.util.Orientation;
+import com.github.gamecube762.texttoblock.util.PasteJob;
+import com.google.inject.Inject;
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.ConfigurationOptions;
+import ninja.leaping.configurate.commented.CommentedConfigurationNode;
+import ninja.leaping.configurate.loader.ConfigurationLoader;
+import org.slf4j.Logger;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.command.CommandResult;
+import org.spongepowered.api.command.args.GenericArguments;
+import org.spongepowered.api.command.spec.CommandSpec;
+import org.spongepowered.api.config.ConfigDir;
+import org.spongepowered.api.config.DefaultConfig;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.cause.NamedCause;
+import org.spongepowered.api.event.game.state.GamePreInitializationEvent;
+import org.spongepowered.api.event.game.state.GameStoppingServerEvent;
+import org.spongepowered.api.plugin.Plugin;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.text.Text;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Created by Gamecube762 on 9/3/2016.
+ */
+@Plugin(id = "texttoblock", name = "TextToBlock", version = "0.0.2", description = "Turns text into blocks")
+public class SpongeLoader {
+
+    @Inject
+    protected Logger logger;
+
+    @Inject
+    @DefaultConfig(sharedRoot = true)
+    private Path configPath;
+
+    @Inject
+    @DefaultConfig(sharedRoot = true)
+    private ConfigurationLoader<CommentedConfigurationNode> configLoader;
+    private ConfigurationNode rootNode;
+
+    @Inject
+    @ConfigDir(sharedRoot = false)
+    private Path configDir;
+
+    @Inject
+    private PluginContainer container;
+
+    private FontManagerService fontManager;
+    private TextToBlockService textToBlock;
+    private PasteScheduler pasteScheduler;
+    private GlyphPrewarmer prewarmer;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private volatile Settings settings;
+
+    @Listener
+    public void gameInitialization(GamePreInitializationEvent event) {
+
+        loadconfig();
+        settings = Settings.of(rootNode);
+
+        fontManager = new FontManagerService(logger, settings);
+        textToBlock = new TextToBlockService(fontManager, settings.getGlyphCacheSize());
+        textToBlock.setParallelThreshold(settings.getParallelThreshold());
+        textToBlock.setRenderThreads(settings.getRenderThreads());
+        openGlyphAtlas(settings);
+        Sponge.getScheduler().createTaskBuilder()
+                .name("TextToBlock - Glyph atlas flush")
+                .async()
+                .interval(30, TimeUnit.SECONDS)
+                .execute(() -> {
+                    GlyphAtlas a = textToBlock.getGlyphAtlas();
+                    if (a != null) a.flush();
+                })
+                .submit(this);
+
+        prewarmer = new GlyphPrewarmer(fontManager, textToBlock, logger);
+        prewarmer.start(settings.getPrewarm());
+
+        pasteScheduler = new PasteScheduler(this, settings.getPasteMaxBlocksPerTick(), settings.getPasteMaxMillisPerTick());
+        pasteScheduler.start();
+
+        Sponge.getServiceManager().setProvider(this, FontManager.class, fontManager);
+        Sponge.getServiceManager().setProvider(this, TextToBlock.class, textToBlock);
+        Sponge.getCommandManager().register(
+                this,
+                CommandSpec.builder()
+                        .description(Text.of("List of loaded fonts"))
+                        .executor((source, context) -> {
+                            List<String> fonts = fontManager.getFontNames();//Names only, doesn't parse every font
+
+                            if (fonts.isEmpty())
+                                source.sendMessage(Text.of("Fonts: None."));
+                            else
+                                source.sendMessage(Text.of(fonts.stream().collect(Collectors.joining(", ", String.format("Fonts(%s): ", fonts.size()), "."))));
+
+                            return CommandResult.builder().queryResult(fonts.size()).build();
+                        })
+                        .build(),
+                "fonts",
+                "loadedfonts"
+        );
+        Sponge.getCommandManager().register(
+                this,
+                CommandSpec.builder()
+                        .description(Text.of("Text to blocks"))
+                        .permission("ttb.command")
+                        .child(
+                                CommandSpec.builder()
+                                        .description(Text.of("Reload the config"))
+                                        .permission("ttb.reload")
+                                        .executor((source, context) -> {
+                                            if (!reload(() -> source.sendMessage(Text.of("TextToBlock config reloaded.")))) {
+                                                source.sendMessage(Text.of("TextToBlock is already reloading."));
+                                                return CommandResult.empty();
+                                            }
+                                            source.sendMessage(Text.of("Reloading TextToBlock..."));
+                                            return CommandResult.success();
+                                        })
+                                        .build(),
+                                "reload"
+                        )
+                        .child(
+                                CommandSpec.builder()
+                                        .description(Text.of("Show render and paste stats"))
+                                        .permission("ttb.stats")
+                                        .executor((source, context) -> {
+                                            GlyphCache cache = textToBlock.getGlyphCache();
+                                            GlyphAtlas atlas = textToBlock.getGlyphAtlas();
+                                            source.sendMessage(Text.of(String.format("Glyphs: %s rasterized, cache %s/%s, %s hits, %s misses, %s evictions", textToBlock.getGlyphsRasterized(), cache.size(), cache.getMaxSize(), cache.getHits(), cache.getMisses(), cache.getEvictions())));
+                                            source.sendMessage(Text.of("Rasterize: " + textToBlock.getRasterizeTimes()));
+                                            if (atlas != null)
+                                                source.sendMessage(Text.of(String.format("Atlas: %s pages, %sKB, %s hits, %s misses", atlas.getPageCount(), atlas.getSize() / 1024, atlas.getHits(), atlas.getMisses())));
+                                            source.sendMessage(Text.of(String.format("Fonts: %s known, %s loaded, %s errors", fontManager.getFontNames().size(), fontManager.getFontsLoaded(), fontManager.getFontLoadErrors())));
+                                            source.sendMessage(Text.of("Font load: " + fontManager.getFontLoadTimes()));
+                                            source.sendMessage(Text.of(String.format("Pastes: %s preparing, %s queued, %s active, %s done, %s cancelled, %s failed", pasteScheduler.getPreparingCount(), pasteScheduler.getQueuedCount(), pasteScheduler.getActiveCount(), pasteScheduler.getJobsDone(), pasteScheduler.getJobsCancelled(), pasteScheduler.getJobsFailed())));
+                                            source.sendMessage(Text.of(String.format("Blocks placed: %s", pasteScheduler.getBlocksPlaced())));
+                                            source.sendMessage(Text.of("Prepare: " + pasteScheduler.getPrepareTimes()));
+                                            source.sendMessage(Text.of("Paste: " + pasteScheduler.getPasteTimes()));
+                                            source.sendMessage(Text.of("Main thread per tick: " + pasteScheduler.getTickTimes()));
+                                            return CommandResult.success();
+                                        })
+                                        .build(),
+                                "stats"
+                        )
+                        .arguments(
+                                GenericArguments.flags()
+                                        .valueFlag(GenericArguments.integer(Text.of("scale")), "x")//-x 4; every pixel is a 4x4 of blocks
+                                        .valueFlag(GenericArguments.integer(Text.of("depth")), "d")//-d 2; 2 blocks deep
+                                        .buildWith(GenericArguments.seq(
+                                                GenericArguments.string(Text.of("f")),
+                                                GenericArguments.integer(Text.of("s")),
+                                                GenericArguments.string(Text.of("alignment")),
+                                                GenericArguments.remainingJoinedStrings(Text.of("message"))// "\\n" for "\n". The first\ seems to be stripped from commands.
+                                        ))
+                        )
+                        .executor((source, context) -> {
+                            Font f;
+                            Optional<Font> fo = fontManager.getFontOrDefault(
+                                    context.<String>getOne("f").get(),
+                                    context.<Integer>getOne("s").get()
+                            );
+                            if (!fo.isPresent()) {
+                                source.sendMessage(Text.of("Unknown font."));
+                                return CommandResult.success();
+                            }
+
+                            f = fo.get();
+                            String message = context.<String>getOne("message").orElse("The quick brown fox\n jumps over\n the lazy dog.").replace("\\n", "\n");
+                            Alignment a = Alignment.of(context.<String>getOne("alignment").orElse("center"));
+                            Alignment alignment = a == null ? settings.getDefaultAlignment() : a;
+
+                            int scale = context.<Integer>getOne("scale").orElse(1);
+                            int depth = context.<Integer>getOne("depth").orElse(1);
+                            if (scale < 1 || scale > settings.getPasteMaxScale() || depth < 1 || depth > settings.getPasteMaxDepth()) {
+                                source.sendMessage(Text.of(String.format("Scale must be 1 to %s and depth 1 to %s.", settings.getPasteMaxScale(), settings.getPasteMaxDepth())));
+                                return CommandResult.empty();
+                            }
+
+                            pasteScheduler.submitSpans(
+                                    () -> new BlockString(message, f, alignment).getBlockSpans(scale),//Rendered off the main thread, at the font size; scaled when placed
+                                    ((Player)source).getLocation(),
+                                    Orientation.EAST,
+                                    depth,
+                                    BlockTypes.DIAMOND_BLOCK,
+                                    Cause.of(NamedCause.of("Plugin", container), NamedCause.simulated(source))
+                            ).getCompletion().whenComplete((job, t) -> {
+                                if (t == null)
+                                    source.sendMessage(Text.of(String.format("Placed %s blocks in %s chunk(s).", job.getPlaced(), job.getChunksTouched())));
+                                else if (!(t instanceof CancellationException))
+                                    source.sendMessage(Text.of("Failed to paste text: " + t.getMessage()));
+                            });
+                            return CommandResult.success();
+                        })
+                        .build(),
+                "ttb",
+                "texttoblock"
+        );
+        Sponge.getCommandManager().register(
+                this,
+                CommandSpec.builder()
+                        .description(Text.of("Cancel queued text pastes"))
+                        .permission("ttb.command")
+                        .executor((source, context) -> {
+                            int i = 0;
+                            for (PasteJob job : pasteScheduler.getJobs())
+                                if (job.cancel()) i++;
+                            source.sendMessage(Text.of(String.format("Cancelled %s paste(s).", i)));
+                            return CommandResult.builder().successCount(i).build();
+                        })
+                        .build(),
+                "ttbcancel"
+        );
+
+    }
+
+    @Listener
+    public void serverStopping(GameStoppingServerEvent event) {
+        pasteScheduler.stop();
+        prewarmer.stop();
+
+        GlyphAtlas a = textToBlock.getGlyphAtlas();
+        if (a != null) a.flush();
+    }
+
+    /**
+     * Opens, resizes or drops the on-disk glyph atlas to match the settings.
+     */
+    private void openGlyphAtlas(Settings s) {
+        GlyphAtlas a = textToBlock.getGlyphAtlas();
+        long maxSize = s.getAtlasMaxSizeMB() * 1024 * 1024;
+
+        if (!s.isAtlasEnabled()) {
+            textToBlock.setGlyphAtlas(null);
+            if (a != null) a.flush();
+        }
+        else if (a != null)
+            a.setMaxSize(maxSize);
+        else
+            try {textToBlock.setGlyphAtlas(new GlyphAtlas(configDir.resolve("glyphs"), maxSize, logger));}
+            catch (IOException e) {
+                logger.error(String.format("Unable to open the glyph atlas, glyphs won't be kept between restarts. | %s", e.getMessage()));
+            }
+    }
+
+    //
+    //Config stuff
+    //
+
+    /**
+     * Reads the config file again and swaps in a new Settings snapshot.
+     * The config and font folder are read on an async task, so a big font folder doesn't hold up the server;
+     * the new settings and fonts are swapped in on the main thread once it's done, which drops the derived font and glyph caches.
+     *
+     * @param done ran on the main thread after the swap
+     * @return false if a reload is already running
+     */
+    private boolean reload(Runnable done) {
+        if (!reloading.compareAndSet(false, true)) return false;
+
+        Sponge.getScheduler().createTaskBuilder()
+                .name("TextToBlock - Reload")
+                .async()
+                .execute(() -> {
+                    FontManagerService.PendingReload r;
+                    try {
+                        loadconfig();
+                        r = fontManager.prepareReload(Settings.of(rootNode));
+                    }
+                    catch (RuntimeException e) {
+                        reloading.set(false);
+                        logger.error(String.format("Reload failed, keeping the old config and fonts. | %s", e));
+                        return;
+                    }
+                    Sponge.getScheduler().createTaskBuilder()
+                            .name("TextToBlock - Apply reload")
+                            .execute(() -> {
+                                try {applyReload(r);}
+                                finally {reloading.set(false);}
+                                done.run();
+                            })
+                            .submit(this);
+                })
+                .submit(this);
+        return true;
+    }
+
+    /**
+     * Swaps in what reload(...) read. Main thread only.
+     */
+    private void applyReload(FontManagerService.PendingReload r) {
+        Settings s = r.getSettings(), old = settings;
+        settings = s;
+
+        fontManager.applyReload(r);
+        textToBlock.getGlyphCache().setMaxSize(s.getGlyphCacheSize());
+        textToBlock.setParallelThreshold(s.getParallelThreshold());
+        if (s.getRenderThreads() != old.getRenderThreads())
+            textToBlock.setRenderThreads(s.getRenderThreads());
+        pasteScheduler.setBudget(s.getPasteMaxBlocksPerTick(), s.getPasteMaxMillisPerTick());
+        openGlyphAtlas(s);
+        prewarmer.start(s.getPrewarm());//Fonts were reloaded, so the glyph cache is empty again
+    }
+    private HashMap<String, Object> defaultConfigMap;
+    private boolean shouldSaveConf = false;
+
+    private void loadconfig() {
+        boolean a = true;
+        if (defaultConfigMap == null) loadDefaultConfigMap();
+        if (Files.exists(configPath))
+            try {rootNode = configLoader.load();}//Fresh node on every load, so a reload doesn't see old values
+            catch (IOException ex) {
+                a = false;
+                logger.warn(String.format("Unable to load config file, using defaults. | %s", ex.getMessage()));
+            }
+        if (rootNode == null)
+            rootNode = configLoader.createEmptyNode(ConfigurationOptions.defaults());
+
+        defaultConfigMap.forEach((k, v) -> confAdd (v, k.split ("[.]")));
+
+        if (a&shouldSaveConf)
+            try {
+                configLoader.save(rootNode);
+                shouldSaveConf = false;
+            }
+            catch (IOException ex) {
+                logger.warn(String.format("Unable to save config file. | %s", ex.getMessage()));
+            }
+    }
+
+    private void confAdd(Object v, String... k) {
+        ConfigurationNode node = rootNode.getNode(k);
+        if (node.getValue() != null) return;
+        node.setValue(v);
+        shouldSaveConf = true;
+    }
+
+    private void loadDefaultConfigMap() {
+        defaultConfigMap = new HashMap<>();
+        defaultConfigMap.put("defaults.font", "arial");//todo find MC's font
+        defaultConfigMap.put("defaults.fontsize", 16);
+        defaultConfigMap.put("defaults.alignment", "left");
+
+        defaultConfigMap.put("fontmanager.extraScanDirs", Arrays.asList("C:\\Windows\\Fonts"));
+        defaultConfigMap.put("fontmanager.loadThreads", 0);//0 = pick from CPU count
+
+        defaultConfigMap.put("texttoblock.glyphCacheSize", TextToBlockService.DEFAULT_GLYPH_CACHE_SIZE);
+        defaultConfigMap.put("texttoblock.parallelThreshold", TextToBlockService.DEFAULT_PARALLEL_THRESHOLD);
+        defaultConfigMap.put("texttoblock.renderThreads", 0);//0 = common ForkJoinPool
+
+        defaultConfigMap.put("paste.maxBlocksPerTick", PasteScheduler.DEFAULT_MAX_BLOCKS_PER_TICK);
+        defaultConfigMap.put("paste.maxMillisPerTick", PasteScheduler.DEFAULT_MAX_MILLIS_PER_TICK);
+        defaultConfigMap.put("paste.maxScale", 16);
+        defaultConfigMap.put("paste.maxDepth", 16);
+
+        defaultConfigMap.put("atlas.enabled", true);
+        defaultConfigMap.put("atlas.maxSizeMB", GlyphAtlas.DEFAULT_MAX_SIZE_MB);
+
+        HashMap<String, Object> prewarm = new HashMap<>();
+        prewarm.put("font", Settings.Prewarm.DEFAULT_FONT);
+        prewarm.put("size", 16);
+        prewarm.put("charset", "ascii");//"ascii", "latin1" or the characters themselves
+        defaultConfigMap.put("prewarm", Collections.singletonList(prewarm));
+    }
+
+}
\ No newline at end of file
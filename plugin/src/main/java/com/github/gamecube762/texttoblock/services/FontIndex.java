@@ -0,0 +1,185 @@
+package com.github.gamecube762.texttoblock.services;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The font index; "fonts/fonts.index".
+ *
+ * A text file with a line per font file recording its path, size, last modified time, style, family and name.
+ * Lets FontManagerService know what fonts it has without parsing every font file on startup. Fonts are only created when they are first used.
+ */
+public class FontIndex {
+
+    public static final String FILENAME = "fonts.index";
+    private static final String HEADER = "#TextToBlock font index v1";
+
+    /**
+     * Reads the index. Returns an empty map if the file is missing, from a different version or unreadable.
+     *
+     * @param file index file
+     * @return entries mapped by the absolute path of the font file
+     */
+    public static Map<Path, Entry> read(Path file) {
+        Map<Path, Entry> a = new HashMap<>();
+        if (!Files.exists(file)) return a;
+
+        try {
+            List<String> lines = Files.readAllLines(file);
+            if (lines.isEmpty() || !lines.get(0).equals(HEADER)) return a;
+
+            for (int i = 1; i < lines.size(); i++) {
+                String[] p = lines.get(i).split("\t");
+                if (p.length != 6) continue;
+                Path path = Paths.get(p[0]);
+                a.put(path, new Entry(path, null, Long.parseLong(p[1]), Long.parseLong(p[2]), Integer.parseInt(p[3]), p[4], p[5], null));
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            a.clear();//Corrupt, it'll just be rebuilt
+        }
+        return a;
+    }
+
+    /**
+     * Writes the index.
+     *
+     * @param file index file
+     * @param entries entries to write
+     * @throws IOException If failed to write
+     */
+    public static void write(Path file, Collection<Entry> entries) throws IOException {
+        List<String> lines = new ArrayList<>(entries.size() + 1);
+        lines.add(HEADER);
+        for (Entry e : entries)
+            lines.add(String.join("\t", e.path.toString(), Long.toString(e.size), Long.toString(e.modified), Integer.toString(e.style), e.family, e.fontName));
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, lines);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * A font file known to the FontManager. The Font itself is only created when it's first needed.
+     */
+    public static final class Entry {
+        private final Path path, proxy;
+        private final long size, modified;
+        private final int style;
+        private final String family, fontName;
+        private volatile Font font;
+
+        Entry(Path path, Path proxy, long size, long modified, int style, String family, String fontName, Font font) {
+            this.path = path;
+            this.proxy = proxy;
+            this.size = size;
+            this.modified = modified;
+            this.style = style;
+            this.family = family;
+            this.fontName = fontName;
+            this.font = font;
+        }
+
+        /**
+         * Entry made from a created font.
+         *
+         * @param path absolute path of the font file
+         * @param proxy ttfproxy that points to the font, null if not proxied
+         * @param size file size
+         * @param modified last modified millis
+         * @param font font
+         * @return entry
+         */
+        static Entry of(Path path, Path proxy, long size, long modified, Font font) {
+            return new Entry(path, proxy, size, modified, font.getStyle(), font.getFamily(), font.getName(), font);
+        }
+
+        /**
+         * Same entry, seen through a (different) proxy.
+         */
+        Entry withProxy(Path proxy) {
+            return new Entry(path, proxy, size, modified, style, family, fontName, font);
+        }
+
+        /**
+         * Does this entry still describe the file.
+         *
+         * @param size current file size
+         * @param modified current last modified millis
+         * @return true if unchanged
+         */
+        boolean matches(long size, long modified) {
+            return this.size == size && this.modified == modified;
+        }
+
+        /**
+         * Hash of the font file's path, size and last modified time. Changes whenever the file does.
+         *
+         * @return hash
+         */
+        public long getFileHash() {
+            String p = path.toString();
+            long h = 1125899906842597L;
+            for (int i = 0; i < p.length(); i++)
+                h = 31 * h + p.charAt(i);
+            h = 31 * h + size;
+            return 31 * h + modified;
+        }
+
+        /**
+         * Key the font is stored under; the font file name without the extension.
+         *
+         * @return key
+         */
+        public String getKey() {
+            return FontManagerService.getFileNameWithoutType(path);
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * @return the ttfproxy pointing to this font or null if it isn't proxied
+         */
+        public Path getProxy() {
+            return proxy;
+        }
+
+        public String getFamily() {
+            return family;
+        }
+
+        public String getFontName() {
+            return fontName;
+        }
+
+        public int getStyle() {
+            return style;
+        }
+
+        /**
+         * @return true if the Font has been created
+         */
+        public boolean isLoaded() {
+            return font != null;
+        }
+
+        Font getFont() {
+            return font;
+        }
+
+        void setFont(Font font) {
+            this.font = font;
+        }
+    }
+}
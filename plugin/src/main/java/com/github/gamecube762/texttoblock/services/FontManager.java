@@ -4,6 +4,7 @@ import java.awt.*;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,6 +21,14 @@ public interface FontManager {
      */
     void loadFontFolder(boolean search, boolean errFiles, boolean loadAgain);
 
+    /**
+     * Adds a listener that is ran every time the font folder is (re)loaded.
+     * Used to drop anything made from the old fonts, like cached glyphs.
+     *
+     * @param listener Runnable to run after loading
+     */
+    void addReloadListener(Runnable listener);
+
     /**
      * Creates a .ttfproxy from the specified .ttf file and saves it to the font folder.
      * Returns False if errors were thrown.
@@ -92,11 +101,19 @@ public interface FontManager {
 
     /**
      * Get all the current loaded fonts.
+     * Fonts are only parsed when first used, this will parse every font that hasn't been yet. Use getFontNames() if you only need the names.
      *
      * @return list of loaded fonts.
      */
     Collection<Font> getLoadedFonts();
 
+    /**
+     * Get the names of all known fonts, without parsing them.
+     *
+     * @return sorted list of font names
+     */
+    List<String> getFontNames();
+
     /**
      * Attempts to load font from specified file.
      * Returns empty if errors were thrown.
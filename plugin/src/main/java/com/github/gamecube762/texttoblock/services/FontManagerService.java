@@ -0,0 +1,769 @@
+package com.github.gamecube762.texttoblock.services;
+
+import com.github.gamecube762.texttoblock.Settings;
+import com.github.gamecube762.texttoblock.util.JfrBridge;
+import com.github.gamecube762.texttoblock.util.LatencyHistogram;
+import ninja.leaping.configurate.ConfigurationNode;
+import org.slf4j.Logger;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * FontManager, a service that manages fonts.
+ * This service is automatically started and registered by the plugin.
+ *
+ * Fonts will be loaded from "root/fonts/" and directories listed in the plugin config will be scanned for fonts.
+ * .ttfproxy will be created for fonts found during the scan and saved to the fonts folder.
+ *
+ * ---
+ *
+ * .ttfproxy is a made-up file for this manager. It's a text file that contains the directory to the original ttf file.
+ * This allows us to keep track of ttf files outside of the server directory.
+ * Errors with loading the referenced .ttf will be saved into the ttfproxy file and the proxy will have "[ERROR]" at the start of it's name.
+ *
+ * ---
+ *
+ * Fonts are only parsed when first used. The name, style and family of every font file is kept in "fonts/fonts.index" along with the file's size and last modified time,
+ * so startup only has to parse the fonts that are new or have changed.
+ */
+public class FontManagerService implements FontManager {
+
+    private static FontManagerService me;
+
+    @Deprecated
+    public static FontManagerService getMe() {
+        return me;
+    }
+
+    public final Path FONTDIR = Paths.get("fonts");
+
+    public static final int DERIVED_CACHE_SIZE = 256;
+
+    private volatile Fonts fonts = new Fonts(Collections.emptyMap());//Replaced as a whole so the cache and names always match
+    private final Map<DerivedKey, Font> derived = new LinkedHashMap<DerivedKey, Font>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DerivedKey, Font> eldest) {
+            return size() > DERIVED_CACHE_SIZE;
+        }
+    };
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder fontsLoaded = new LongAdder(), fontLoadErrors = new LongAdder();
+    private final LatencyHistogram fontLoadTimes = new LatencyHistogram();
+    private Logger logger;
+    private volatile String defaultFontName;
+    private volatile Settings settings;
+
+    protected FontManagerService(){}//testing reasons
+
+    public FontManagerService(Logger logger, ConfigurationNode config) {
+        this(logger, Settings.of(config));
+    }
+
+    public FontManagerService(Logger logger, Settings settings) {
+        this.logger = logger;
+        this.settings = settings;
+
+        loadFontFolder(true, true, false);
+        resolveDefaultFont();
+    }
+
+    /**
+     * Swaps in new settings and reloads the font folder.
+     * Reload listeners are ran, so anything made from the old fonts is dropped.
+     *
+     * @param settings new settings
+     */
+    public void reload(Settings settings) {
+        applyReload(prepareReload(settings));
+    }
+
+    /**
+     * Reads the font folder with the new settings without swapping anything in; nothing in use is changed.
+     * Every file is looked at again; fonts whose file is unchanged are reused, changed files are parsed again and removed ones are dropped.
+     * Fine to run off the main thread. Hand the result to applyReload(...) to use it.
+     *
+     * @param settings new settings
+     * @return the fonts read, to give to applyReload(...)
+     */
+    public PendingReload prepareReload(Settings settings) {
+        Fonts before = fonts;
+        Map<Path, FontIndex.Entry> index = FontIndex.read(FONTDIR.resolve(FontIndex.FILENAME));
+        before.cache.values().forEach(e -> index.put(e.getPath(), e));//Keeps the already created Fonts of unchanged files
+        return new PendingReload(settings, before, scanFontFolder(settings, true, true, Collections.emptyMap(), index));
+    }
+
+    /**
+     * Swaps in the settings and fonts read by prepareReload(...).
+     * Reload listeners are ran, so anything made from the old fonts is dropped.
+     *
+     * @param reload result of prepareReload(...)
+     */
+    public void applyReload(PendingReload reload) {
+        this.settings = reload.settings;
+        if (reload.loaded != null)
+            publishFonts(reload.before, reload.loaded);
+        resolveDefaultFont();
+    }
+
+    /**
+     * Picks the default font from the settings, falling back to Arial or the first font if it's missing.
+     */
+    private void resolveDefaultFont() {
+        defaultFontName = settings.getDefaultFont();
+
+        if (getFont(defaultFontName).isPresent()) return;
+        if (fonts.cache.isEmpty()){
+            logger.warn("No Fonts Loaded! This may cause errors within the plugin!");
+            defaultFontName = "";
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder(String.format("Font \"%s\" was not found.", defaultFontName));
+
+        defaultFontName = getFont("Arial").isPresent() ? "Arial" : (String) fonts.cache.values().stream().map(FontIndex.Entry::getFontName).sorted().toArray()[0];
+
+        sb.append(String.format(" Using %s instead.", defaultFontName));
+        logger.warn(sb.toString());
+    }
+
+
+    /**
+     * Load fonts from font folder. All fonts will be in the FontCache. Use .getFont(...) to get your font.
+     *
+     * @param search Search extra dirs defined in config
+     * @param errFiles Attempt to load Proxies that contains [ERROR]
+     * @param loadAgain Load fonts even though they've already been loaded.
+     */
+    public void loadFontFolder(boolean search, boolean errFiles, boolean loadAgain) {
+        Fonts before = fonts;
+        Map<String, FontIndex.Entry> known = loadAgain ? Collections.emptyMap() : before.cache;
+        Map<Path, FontIndex.Entry> index = loadAgain ? new HashMap<>() : FontIndex.read(FONTDIR.resolve(FontIndex.FILENAME));
+        Map<String, FontIndex.Entry> loaded = scanFontFolder(settings, search, errFiles, known, index);
+        if (loaded != null)
+            publishFonts(before, loaded);
+    }
+
+    /**
+     * Reads the font folder into a new map and saves the index; the fonts in use aren't touched.
+     *
+     * @param known fonts to keep as they are; their files aren't looked at again
+     * @param index entries by absolute path, reused for files that haven't changed since
+     * @return the fonts by file name, null if the font folder couldn't be made
+     */
+    private Map<String, FontIndex.Entry> scanFontFolder(Settings settings, boolean search, boolean errFiles, Map<String, FontIndex.Entry> known, Map<Path, FontIndex.Entry> index) {
+        if (!Files.exists(FONTDIR))
+            try {Files.createDirectories(FONTDIR);}
+            catch (IOException e) {
+                logger.error(String.format("Failed to create Font directory! | IOExc: %s", e.getMessage()));
+                return null;
+            }
+
+        long start = System.nanoTime();
+        Map<String, Path> proxiesToCreate = new LinkedHashMap<>();//by proxy file name; the first dir wins so no two threads write the same proxy
+        List<Path> fontFiles = new ArrayList<>();
+
+        if (search)
+            settings.getExtraScanDirs().forEach(o -> {
+                Path p = Paths.get(o);
+                if (!Files.exists(p)) return;
+                if (Files.isRegularFile(p)) proxiesToCreate.putIfAbsent(p.getFileName().toString(), p);
+                if (Files.isDirectory(p)) {
+                    try (DirectoryStream<Path> paths = Files.newDirectoryStream(p, "*.ttf")) {
+                        Iterator<Path> i = paths.iterator();
+
+                        if (!i.hasNext()) {
+                            logger.warn(o + " doesn't contain fonts.");
+                            return;
+                        }
+                        while (i.hasNext()) {
+                            Path f = i.next();
+                            proxiesToCreate.putIfAbsent(f.getFileName().toString(), f);
+                        }
+                    }
+                    catch (IOException | DirectoryIteratorException e ) {
+                        logger.warn(String.format("Unable to scan \"%s\". %s: %s", o, e.getClass().getName(), e.getMessage()));
+                    }
+                }
+            });
+
+        //Fonts are indexed into a new map that replaces the cache once everything is indexed, so getFont(...) never sees a half loaded folder.
+        //Files are read in parallel, then added on this thread in file name order, so which of two files with the same font wins doesn't depend on timing.
+        Map<Path, FontIndex.Entry> found = new ConcurrentHashMap<>();
+        int parsed = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(getLoadThreads(settings), r -> {
+            Thread t = new Thread(r, "TextToBlock - Font loader");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            invokeAll(pool, new ArrayList<>(proxiesToCreate.values()), this::createFontProxyFileNOERR);//Proxies must exist before the font folder is listed
+
+            try (DirectoryStream<Path> paths = Files.newDirectoryStream(FONTDIR, errFiles ? "*.{ttf,ttfproxy}" : "*.ttf")) {
+                paths.forEach(fontFiles::add);
+            }
+            catch (IOException | DirectoryIteratorException e ) {
+                logger.warn(String.format("Unable to load font folder. %s: %s", e.getClass().getName(), e.getMessage()));
+            }
+
+            Collections.sort(fontFiles);
+            if (fontFiles.isEmpty())
+                logger.warn("No Fonts Found!");
+            else
+                invokeAll(pool, fontFiles, p -> indexFont(p, index, known).ifPresent(e -> found.put(p, e)));
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        Map<String, FontIndex.Entry> loaded = new HashMap<>(known);
+        for (Path p : fontFiles) {
+            FontIndex.Entry e = found.get(p);
+            if (e != null && addFont(loaded, e) && e.isLoaded())
+                parsed++;
+        }
+
+        try {FontIndex.write(FONTDIR.resolve(FontIndex.FILENAME), loaded.values());}
+        catch (IOException e) {
+            logger.warn(String.format("Unable to save font index. %s: %s", e.getClass().getName(), e.getMessage()));
+        }
+
+        logger.info(String.format("Loaded %s fonts from %s files in %sms. %s parsed, %s from the index.", loaded.size(), fontFiles.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), parsed, loaded.size() - parsed));
+        return loaded;
+    }
+
+    /**
+     * Swaps the scanned fonts in, drops the derived fonts and runs the reload listeners.
+     */
+    private void publishFonts(Fonts before, Map<String, FontIndex.Entry> loaded) {
+        synchronized (this) {//Same lock as loadFont(Path)
+            if (fonts != before)//Keep fonts loadFont(Path) added while the folder was loading
+                fonts.cache.values().forEach(e -> {if (!before.cache.containsKey(e.getKey())) addFont(loaded, e);});
+            fonts = new Fonts(loaded);
+        }
+        synchronized (derived) {derived.clear();}
+        reloadListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Gets the entry of a font file, using the index entry if the file hasn't changed since it was indexed. Otherwise the font is parsed.
+     * Called on the loader threads; the entry is added by loadFontFolder(...) afterwards.
+     *
+     * @return the entry, empty if the file is already known or failed to load
+     */
+    private Optional<FontIndex.Entry> indexFont(Path path, Map<Path, FontIndex.Entry> index, Map<String, FontIndex.Entry> known) {
+        String name = path.getFileName().toString();
+        Path proxy = null;
+        Path font = path;
+
+        try {
+            if (name.endsWith(".ttfproxy")) {
+                proxy = path;
+                font = Paths.get(Files.readAllLines(path).get(0));
+            }
+
+            if (known.containsKey(getFileNameWithoutType(font)))
+                return Optional.empty();
+
+            BasicFileAttributes attr = Files.readAttributes(font, BasicFileAttributes.class);
+            FontIndex.Entry e = index.get(font.toAbsolutePath());
+            if (e != null && e.matches(attr.size(), attr.lastModifiedTime().toMillis()) && !name.startsWith("[ERROR] "))
+                return Optional.of(e.withProxy(proxy));
+        }
+        catch (IOException | RuntimeException ignore) {/*readFont(...) will deal with it*/}
+
+        try {return Optional.of(readFont(path, known));}
+        catch (FontFormatException | IOException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Adds the entry unless there already is one for its file, or for its font name and style.
+     * Not thread safe; entries are only added by a single thread, after the files were read.
+     *
+     * @return true if added
+     */
+    private static boolean addFont(Map<String, FontIndex.Entry> cache, FontIndex.Entry e) {
+        if (cache.containsKey(e.getKey())) return false;
+        for (FontIndex.Entry o : cache.values())
+            if (o.getFontName().equals(e.getFontName()) && o.getStyle() == e.getStyle())
+                return false;
+        cache.put(e.getKey(), e);
+        return true;
+    }
+
+    private static int getLoadThreads(Settings settings) {
+        int threads = settings.getFontLoadThreads();
+        return threads > 0 ? threads : Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Runs the task for each path on the pool and waits for all of them to finish.
+     */
+    private void invokeAll(ExecutorService pool, List<Path> paths, Consumer<Path> task) {
+        List<Future<?>> futures = new ArrayList<>(paths.size());
+        paths.forEach(p -> futures.add(pool.submit(() -> task.accept(p))));
+        for (Future<?> f : futures)
+            try {f.get();}
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (ExecutionException e) {
+                logger.error(String.format("Error while loading fonts | %s", e.getCause()));
+            }
+    }
+
+    /**
+     * Get the settings snapshot currently in use.
+     *
+     * @return settings
+     */
+    public Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Adds a listener that is ran every time the font folder is (re)loaded.
+     * Used to drop anything made from the old fonts, like cached glyphs.
+     *
+     * @param listener Runnable to run after loading
+     */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Creates a .ttfproxy from the specified .ttf file and saves it to the font folder.
+     * Returns False if errors were thrown.
+     *
+     * @param path path to font
+     */
+    public boolean createFontProxyFileNOERR(Path path) {
+        try {createFontProxyFile(path); return true;}
+        catch (IOException | IllegalArgumentException ignore) {return false;}
+    }
+
+    /**
+     * Creates a .ttfproxy from the specified .ttf file and saves it to the font folder.
+     *
+     * @param path path to font
+     * @throws IOException If failed to write
+     * @throws IllegalArgumentException If path is not to a .ttf file
+     */
+    public void createFontProxyFile(Path path) throws IOException, IllegalArgumentException {
+        String name = path.getFileName().toString();
+        if (!name.contains(".ttf"))
+            throw new IllegalArgumentException("Unsupported Filetype: " + path.getFileName().toString());
+        Files.write(FONTDIR.resolve(name + "proxy"), path.toAbsolutePath().toString().getBytes());
+    }
+
+    /**
+     * Returns an optional of the desired font. Optional will be empty if no font is found.
+     * Font will be default size from the config.
+     *
+     * @param name FontName
+     * @return Optional of desired font
+     */
+    public Optional<Font> getFont(String name) {
+        return getFont(name, settings.getDefaultFontSize());
+    }
+
+    /**
+     * Returns an optional of the desired font. Optional will be empty if no font is found.
+     * Name is matched against both file and font names, ignoring case and treating spaces as underscores.
+     * Derived fonts are cached; the same Font is returned for the same name and size.
+     *
+     * @param name FontName
+     * @param size FontSize
+     * @return Optional of desired font
+     */
+    public Optional<Font> getFont(String name, float size) {
+        FontIndex.Entry entry = fonts.names.get(normalizeName(name));
+        if (entry == null) return Optional.empty();
+
+        DerivedKey key = new DerivedKey(entry, size);
+        Font f;
+        synchronized (derived) {f = derived.get(key);}
+        if (f != null) return Optional.of(f);
+
+        return materialize(entry).map(a -> a.deriveFont(size)).map(a -> {
+            synchronized (derived) {
+                Font prev = derived.putIfAbsent(key, a);
+                return prev != null ? prev : a;
+            }
+        });
+    }
+
+    /**
+     * Hash identifying the file the font was loaded from, see FontIndex.Entry#getFileHash().
+     * Fonts that didn't come from the FontManager are hashed on their name and the Java version, as they come with Java.
+     *
+     * @param font font
+     * @return hash
+     */
+    public long getFontFileHash(Font font) {
+        FontIndex.Entry entry = fonts.names.get(normalizeName(font.getName()));
+        if (entry != null && entry.getFontName().equals(font.getName()))
+            return entry.getFileHash();
+        return (font.getFontName() + "|" + System.getProperty("java.version")).hashCode() & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Normalizes a font or file name for lookups; spaces become underscores and it's lower cased.
+     *
+     * @param name name
+     * @return normalized name
+     */
+    public static String normalizeName(String name) {
+        return name.replace(' ', '_').toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Maps the normalized file name and font name of every entry to it. File names win over font names.
+     */
+    private static Map<String, FontIndex.Entry> buildNames(Map<String, FontIndex.Entry> cache) {
+        Map<String, FontIndex.Entry> a = new HashMap<>();
+        cache.forEach((k, e) -> a.putIfAbsent(normalizeName(k), e));
+        cache.forEach((k, e) -> a.putIfAbsent(normalizeName(e.getFontName()), e));
+        return a;
+    }
+
+    /**
+     * Creates the entry's Font if it hasn't been created yet.
+     *
+     * @param entry font entry
+     * @return the Font, empty if it failed to load
+     */
+    private Optional<Font> materialize(FontIndex.Entry entry) {
+        Font f = entry.getFont();
+        if (f != null) return Optional.of(f);
+
+        synchronized (entry) {
+            if ((f = entry.getFont()) != null) return Optional.of(f);
+
+            long start = System.nanoTime();
+            try {
+                f = Font.createFont(Font.TRUETYPE_FONT, entry.getPath().toFile());
+                fontLoaded(start, entry.getPath(), entry.getProxy() != null, null);
+            }
+            catch (FontFormatException | IOException e) {
+                fontLoaded(start, entry.getPath(), entry.getProxy() != null, e);
+                logger.error(String.format("Unable to load %s | %s", entry.getPath().getFileName(), e.getMessage()));
+                if (entry.getProxy() != null)
+                    markProxyError(entry.getProxy(), entry.getPath().toString(), e);
+                return Optional.empty();
+            }
+
+            entry.setFont(f);
+            return Optional.of(f);
+        }
+    }
+
+    /**
+     * Gets an optional of the default font that was defined in the config.
+     * Will be empty only if no fonts were loaded.
+     *
+     * @return the default font defined in the config
+     */
+    public Optional<Font> getDefaultFont() {
+        return getDefaultFont(settings.getDefaultFontSize());
+    }
+
+    /**
+     * Gets an optional of the default font that was defined in the config.
+     * Will be empty only if no fonts were loaded.
+     *
+     * @param size desired font size
+     * @return the default font defined in the config
+     */
+    public Optional<Font> getDefaultFont(float size) {
+        return getFont(defaultFontName, size);
+    }
+
+    /**
+     * Returns an optional of the desired font or the default font if the desired font was not found.
+     * Font will be default size from the config.
+     *
+     * @param name FontName
+     * @return desired font or default font; either way you are getting a font.
+     */
+    public Optional<Font> getFontOrDefault(String name) {
+        return getFontOrDefault(name, settings.getDefaultFontSize());
+    }
+
+    /**
+     * Returns an optional of the desired font or the default font if the desired font was not found.
+     *
+     * @param name FontName
+     * @param size FontSize
+     * @return desired font or default font; either way you are getting a font.
+     */
+    public Optional<Font> getFontOrDefault(String name, float size) {
+        Optional<Font> o = getFont(name, size);
+        return o.isPresent() ? o : getDefaultFont(size);
+    }
+
+    /**
+     * Get all the current loaded fonts.
+     * Fonts are only parsed when first used, this will parse every font that hasn't been yet. Use getFontNames() if you only need the names.
+     *
+     * @return list of loaded fonts.
+     */
+    public Collection<Font> getLoadedFonts() {
+        List<Font> a = new ArrayList<>();
+        fonts.cache.values().forEach(e -> materialize(e).ifPresent(a::add));
+        return a;
+    }
+
+    /**
+     * Get the names of all known fonts, without parsing them.
+     *
+     * @return sorted list of font names
+     */
+    public List<String> getFontNames() {
+        List<String> a = new ArrayList<>();
+        fonts.cache.values().forEach(e -> a.add(e.getFontName()));
+        Collections.sort(a);
+        return a;
+    }
+
+    /**
+     * Attempts to load font from specified file.
+     * Returns empty if errors were thrown.
+     *
+     * @param path Font File to load
+     * @return Optional of Font
+     */
+    public Optional<Font> loadFontNOERR(Path path)  {
+        try {return Optional.of(loadFont(path));}
+        catch (FontFormatException | IOException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Attempts to load font from specified file.
+     *
+     * @param path Font File to load
+     * @return font if no exceptions were thrown
+     * @throws IOException If file is unable to be loaded.
+     * @throws FontFormatException Thrown by Font.createFont(...)
+     * @throws IllegalArgumentException If file is not .ttf or .ttfproxy
+     */
+    public synchronized Font loadFont(Path path) throws IOException, FontFormatException, IllegalArgumentException {
+        Map<String, FontIndex.Entry> cache = new HashMap<>(fonts.cache);
+        FontIndex.Entry e = readFont(path, cache);
+        if (addFont(cache, e))
+            fonts = new Fonts(cache);
+        return e.getFont();
+    }
+
+    /**
+     * Parses the font file, or gets the known entry for it.
+     *
+     * @param known entries already loaded, by file name; only read
+     * @return the entry, with its Font created
+     */
+    private FontIndex.Entry readFont(Path path, Map<String, FontIndex.Entry> known) throws IOException, FontFormatException, IllegalArgumentException {
+        String name = path.getFileName().toString();
+        boolean isProxied = name.endsWith(".ttfproxy");
+        Path proxy = null;
+        List<String> pLines = null;
+        FontIndex.Entry e;
+        Font f;
+
+        if (!name.endsWith(".ttf") && !isProxied)
+            throw new IllegalArgumentException("Unsupported Filetype: " + name);
+
+        if (isProxied) {
+            proxy = path;
+            pLines = Files.readAllLines(path);//throws
+            path = Paths.get(pLines.get(0));
+        }
+
+        if ((e = known.get(getFileNameWithoutType(path))) != null && materialize(e).isPresent())
+            return e;
+
+        BasicFileAttributes attr;
+        long start = System.nanoTime();
+        try {
+            attr = Files.readAttributes(path, BasicFileAttributes.class);
+            f = Font.createFont(Font.TRUETYPE_FONT, path.toFile());
+            fontLoaded(start, path, isProxied, null);
+        }
+        catch (FontFormatException | IOException ex) {
+            fontLoaded(start, path, isProxied, ex);
+            logger.error(String.format("Unable to load %s | %s", name, ex.getMessage()));
+
+            if (isProxied)
+                markProxyError(proxy, pLines.get(0), ex);
+
+            throw ex;
+        }
+
+        e = FontIndex.Entry.of(path.toAbsolutePath(), proxy, attr.size(), attr.lastModifiedTime().toMillis(), f);
+
+        if (isProxied && proxy.getFileName().toString().startsWith("[ERROR] "))//No error, loaded fine.
+            try {
+                Files.delete(proxy);
+                proxy = Paths.get(proxy.getParent().toString(), proxy.getFileName().toString().replace("[ERROR] ", ""));
+                Files.write(proxy, pLines.get(0).getBytes());
+            }
+            catch (IOException ex) {
+                logger.error(String.format("Unable to update proxy %s | %s", proxy.getFileName(), ex.getMessage()));
+            }
+
+        return e;
+    }
+
+    /**
+     * Records a font parse, or a failed one if error isn't null.
+     */
+    private void fontLoaded(long start, Path path, boolean proxied, Exception error) {
+        long nanos = System.nanoTime() - start;
+        if (error != null)
+            fontLoadErrors.increment();
+        else {
+            fontLoadTimes.record(nanos);
+            fontsLoaded.increment();
+        }
+
+        if (JfrBridge.INSTANCE.isFontLoadedEnabled())
+            JfrBridge.INSTANCE.fontLoaded(path.toString(), proxied, nanos, error == null ? null : error.getClass().getSimpleName() + ": " + error.getMessage());
+    }
+
+    /**
+     * Get the amount of font files parsed, including ones parsed again after a reload. Fonts read from the index aren't parsed until used.
+     *
+     * @return fonts loaded
+     */
+    public long getFontsLoaded() {
+        return fontsLoaded.sum();
+    }
+
+    /**
+     * Get the amount of font files that failed to parse.
+     *
+     * @return font load errors
+     */
+    public long getFontLoadErrors() {
+        return fontLoadErrors.sum();
+    }
+
+    /**
+     * Get how long parsing a font file took, failed ones excluded.
+     *
+     * @return font load times
+     */
+    public LatencyHistogram getFontLoadTimes() {
+        return fontLoadTimes;
+    }
+
+    /**
+     * Renames the proxy to "[ERROR] ..." and writes the error into it.
+     */
+    private void markProxyError(Path proxy, String target, Exception e) {
+        try {
+            if (!proxy.getFileName().toString().startsWith("[ERROR] ")) {//Rename proxy file.
+                Files.delete(proxy);
+                proxy = Paths.get(proxy.getParent().toString(), "[ERROR] " + proxy.getFileName());
+            }
+
+            Files.write(proxy, Arrays.asList(target, "", "[ERROR]", "Failed to load font.", e.getClass().getName(), e.getMessage()));
+        }
+        catch (IOException ignore){/*Was the HDD disconnected or something?*/}
+    }
+
+    /**
+     * Settings and fonts read by prepareReload(...), not in use until given to applyReload(...).
+     */
+    public static final class PendingReload {
+        private final Settings settings;
+        private final Fonts before;
+        private final Map<String, FontIndex.Entry> loaded;//null if the font folder couldn't be read
+
+        private PendingReload(Settings settings, Fonts before, Map<String, FontIndex.Entry> loaded) {
+            this.settings = settings;
+            this.before = before;
+            this.loaded = loaded;
+        }
+
+        public Settings getSettings() {
+            return settings;
+        }
+    }
+
+    /**
+     * The loaded fonts by file name, and the same entries by normalized file and font name. Never changed once made.
+     */
+    private static final class Fonts {
+        private final Map<String, FontIndex.Entry> cache;
+        private final Map<String, FontIndex.Entry> names;
+
+        Fonts(Map<String, FontIndex.Entry> cache) {
+            this.cache = Collections.unmodifiableMap(new HashMap<>(cache));
+            this.names = Collections.unmodifiableMap(buildNames(cache));
+        }
+    }
+
+    /**
+     * Key of the derived font cache; (font entry, size)
+     */
+    private static final class DerivedKey {
+        private final FontIndex.Entry entry;
+        private final float size;
+
+        DerivedKey(FontIndex.Entry entry, float size) {
+            this.entry = entry;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DerivedKey)) return false;
+            DerivedKey k = (DerivedKey) o;
+            return entry == k.entry && size == k.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(entry) * 31 + Float.floatToIntBits(size);
+        }
+    }
+
+    /**
+     * Gets the name of a file without the file extension.
+     *
+     * @param path path to file
+     * @return String returning filename
+     */
+    public static String getFileNameWithoutType(Path path) {
+        String name = path.getFileName().toString();
+        return name.contains(".") ? name.substring(0, name.lastIndexOf(".")) : name;
+    }
+
+    /**
+     * Testing test stuff
+     * @param args *Pirate*
+     * @throws Exception if there is one
+     */
+    public static void main(String args[]) throws Exception {
+    }
+
+}
@@ -0,0 +1,435 @@
+package com.github.gamecube762.texttoblock.services;
+
+import com.github.gamecube762.texttoblock.util.GlyphMask;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Rendered glyph masks kept on disk, so a restarted server doesn't have to render them again.
+ *
+ * The atlas is a directory of pages; one file per font file, style and size. Pages are read into memory when first used and glyphs are read straight out of the page's buffer.
+ * Pages aren't memory mapped; Java has no way to unmap a file, and on Windows a mapped file can't be replaced or deleted until the mapping is garbage collected,
+ * which would break rewriting a page in flush() and deleting it when it's evicted.
+ *
+ * The atlas' lock only guards the page table. A page is read under its own lock, so only threads wanting the same page wait for its first read, and files are only written by flush().
+ * New glyphs are held in memory until flush() writes their page out again. Each page has a version and a CRC32 of its contents, a page that doesn't check out is deleted and rebuilt.
+ * A page that couldn't be read is never written over, its new glyphs are kept in memory until it can be.
+ * When the pages go over the size cap, the least recently used pages are deleted.
+ *
+ * Page layout, big endian:
+ *   int magic, int version, long font hash, int style, float size, int glyph count, long crc32 of everything after the header
+ *   per glyph: int char, int width, int height, int offset of its first long
+ *   the glyph masks as packed longs, see GlyphMask#toLongArray()
+ */
+public class GlyphAtlas {
+
+    public static final long DEFAULT_MAX_SIZE_MB = 64;
+    public static final String EXTENSION = ".glyphs";
+
+    static final int VERSION = 1;
+    private static final int MAGIC = 0x54544241;//"TTBA"
+    private static final int HEADER_SIZE = 36, ENTRY_SIZE = 16;
+    private static final Pattern NAME = Pattern.compile("([0-9a-f]{16})-(\\d+)-([0-9.]+)" + Pattern.quote(EXTENSION));
+
+    private final Path dir;
+    private final Logger logger;
+    private final Map<PageKey, Page> pages = new LinkedHashMap<>(16, 0.75f, true);//Access order, eldest is the least recently used
+    private final Object flushLock = new Object();//Held while flushing or clearing, so page files are only written by one thread at a time
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+    private volatile long maxSize;
+
+    /**
+     * Opens the atlas in the directory, creating it if needed. Pages are only read when they're first used.
+     *
+     * @param dir directory to keep the pages in
+     * @param maxSize max bytes the pages may use on disk
+     * @param logger logger
+     * @throws IOException if the directory can't be created or read
+     */
+    public GlyphAtlas(Path dir, long maxSize, Logger logger) throws IOException {
+        this.dir = dir;
+        this.maxSize = maxSize;
+        this.logger = logger;
+
+        Files.createDirectories(dir);
+
+        List<Page> found = new ArrayList<>();
+        Map<Page, Long> lastModified = new HashMap<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+            for (Path p : ds) {
+                Matcher m = NAME.matcher(p.getFileName().toString());
+                if (!m.matches()) continue;
+
+                Page page = new Page(new PageKey(Long.parseUnsignedLong(m.group(1), 16), Integer.parseInt(m.group(2)), Float.parseFloat(m.group(3))), p);
+                page.fileSize = Files.size(p);
+                found.add(page);
+                lastModified.put(page, Files.getLastModifiedTime(p).toMillis());
+            }
+        }
+
+        found.sort(Comparator.comparingLong(lastModified::get));//Least recently used first, so they're evicted first
+        for (Page p : found)
+            pages.put(p.key, p);
+    }
+
+    /**
+     * Gets a glyph out of the atlas.
+     *
+     * @param fontHash hash of the font file, see FontIndex.Entry#getFileHash()
+     * @param style font style
+     * @param size font size
+     * @param c character
+     * @return the glyph's mask or null if it isn't in the atlas
+     */
+    public GlyphMask get(long fontHash, int style, float size, char c) {
+        Page page;
+        synchronized (this) {page = pages.get(new PageKey(fontHash, style, size));}
+        GlyphMask m = page == null ? null : page.get(c);//Reads the page if needed, outside the atlas' lock
+
+        (m == null ? misses : hits).incrementAndGet();
+        return m;
+    }
+
+    /**
+     * Adds a glyph to the atlas. It's written to disk on the next flush().
+     *
+     * @param fontHash hash of the font file, see FontIndex.Entry#getFileHash()
+     * @param style font style
+     * @param size font size
+     * @param c character
+     * @param mask the glyph's mask
+     */
+    public void put(long fontHash, int style, float size, char c, GlyphMask mask) {
+        PageKey key = new PageKey(fontHash, style, size);
+        Page page;
+        synchronized (this) {page = pages.computeIfAbsent(key, k -> new Page(k, dir.resolve(k.getFileName())));}
+        page.put(c, mask);
+    }
+
+    /**
+     * Writes every page with new glyphs to disk, then deletes the least recently used pages until the atlas is under its size cap.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            //Only the page table is copied under the atlas' lock, pages are read and merged under their own
+            List<Page> snapshot;
+            synchronized (this) {snapshot = new ArrayList<>(pages.values());}
+
+            Map<Page, byte[]> toWrite = new LinkedHashMap<>();
+            List<Path> toTouch = new ArrayList<>();
+            for (Page p : snapshot) {
+                byte[] data = p.merge();
+                if (data != null)
+                    toWrite.put(p, data);
+                else if (p.used && p.fileSize > 0)
+                    toTouch.add(p.path);
+                p.used = false;
+            }
+
+            Map<Page, Long> written = new HashMap<>();
+            toWrite.forEach((p, data) -> {
+                try {
+                    p.write(data);
+                    written.put(p, (long) data.length);
+                }
+                catch (IOException e) {
+                    logger.error(String.format("Unable to write glyph page %s | %s", p.path.getFileName(), e.getMessage()));
+                }
+            });
+
+            FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+            for (Path p : toTouch)
+                try {Files.setLastModifiedTime(p, now);}//Keeps the LRU order over restarts
+                catch (IOException e) {
+                    logger.error(String.format("Unable to touch glyph page %s | %s", p.getFileName(), e.getMessage()));
+                }
+
+            List<Page> evicted = new ArrayList<>();
+            synchronized (this) {
+                written.forEach((p, size) -> p.fileSize = size);
+
+                long total = getSize();
+                Iterator<Page> it = pages.values().iterator();
+                while (total > maxSize && it.hasNext()) {
+                    Page p = it.next();
+                    total -= p.fileSize;
+                    evicted.add(p);
+                    it.remove();
+                }
+            }
+            evicted.forEach(Page::delete);//No longer in the atlas, nothing else can reach them
+        }
+    }
+
+    /**
+     * Deletes every page.
+     */
+    public void clear() {
+        synchronized (flushLock) {
+            synchronized (this) {
+                pages.values().forEach(Page::delete);
+                pages.clear();
+            }
+        }
+    }
+
+    /**
+     * @param maxSize max bytes the pages may use on disk. Applied on the next flush().
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return bytes used on disk by all pages
+     */
+    public synchronized long getSize() {
+        long a = 0;
+        for (Page p : pages.values())
+            a += p.fileSize;
+        return a;
+    }
+
+    public synchronized int getPageCount() {
+        return pages.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    /**
+     * A font file, style and size.
+     */
+    private static final class PageKey {
+        private final long fontHash;
+        private final int style;
+        private final float size;
+
+        private PageKey(long fontHash, int style, float size) {
+            this.fontHash = fontHash;
+            this.style = style;
+            this.size = size;
+        }
+
+        private String getFileName() {
+            return String.format("%016x-%s-%s%s", fontHash, style, size, EXTENSION);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PageKey)) return false;
+            PageKey k = (PageKey) o;
+            return fontHash == k.fontHash && style == k.style && Float.compare(size, k.size) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(fontHash) * 31 + style) * 31 + Float.floatToIntBits(size);
+        }
+    }
+
+    /**
+     * One page file. Its contents are guarded by the page's own lock; write(...) only touches the file and is called without it.
+     */
+    private final class Page {
+        private final PageKey key;
+        private final Path path;
+        private final Map<Character, GlyphMask> pending = new HashMap<>();
+        private Map<Character, Integer> index;//char to entry position, null until read
+        private ByteBuffer buf;
+        private int dataStart;
+        private volatile long fileSize;//Also read by the atlas under its own lock
+        private volatile boolean used;
+
+        private Page(PageKey key, Path path) {
+            this.key = key;
+            this.path = path;
+        }
+
+        private synchronized GlyphMask get(char c) {
+            used = true;
+
+            GlyphMask m = pending.get(c);
+            if (m != null) return m;
+
+            if (index == null && !open()) return null;
+            Integer e = index.get(c);
+            return e == null ? null : read(e);
+        }
+
+        /**
+         * Adds the glyph to the pending ones. Doesn't read the page, merge() leaves out glyphs it already has.
+         */
+        private synchronized void put(char c, GlyphMask mask) {
+            if (index == null || !index.containsKey(c))
+                pending.put(c, mask);
+        }
+
+        /**
+         * Reads the page file and its glyph entries. A missing, old or corrupt page is treated as empty.
+         *
+         * @return false if the file couldn't be read; the page stays unread and isn't written over
+         */
+        private boolean open() {
+            if (!Files.exists(path)) {
+                load(null);
+                return true;
+            }
+
+            try {
+                ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(path));
+                String err = verify(b);
+                if (err != null) {
+                    logger.warn(String.format("Discarding glyph page %s | %s", path.getFileName(), err));
+                    delete();
+                    load(null);
+                    return true;
+                }
+
+                load(b);
+                fileSize = b.capacity();
+                return true;
+            }
+            catch (IOException e) {
+                logger.error(String.format("Unable to read glyph page %s | %s", path.getFileName(), e.getMessage()));
+                return false;
+            }
+        }
+
+        /**
+         * Uses the verified page contents for reading glyphs, null for an empty page.
+         */
+        private void load(ByteBuffer b) {
+            int count = b == null ? 0 : b.getInt(24);
+            index = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                int e = HEADER_SIZE + i * ENTRY_SIZE;
+                index.put((char) b.getInt(e), e);
+            }
+            buf = b;
+            dataStart = HEADER_SIZE + count * ENTRY_SIZE;
+        }
+
+        /**
+         * @return why the page is unusable, null if it's fine
+         */
+        private String verify(ByteBuffer b) {
+            if (b.capacity() < HEADER_SIZE) return "Too short";
+            if (b.getInt(0) != MAGIC) return "Not a glyph page";
+            if (b.getInt(4) != VERSION) return String.format("Version %s, expected %s", b.getInt(4), VERSION);
+            if (b.getLong(8) != key.fontHash || b.getInt(16) != key.style || Float.compare(b.getFloat(20), key.size) != 0) return "Header doesn't match the file name";
+
+            int count = b.getInt(24);
+            if (count < 0 || HEADER_SIZE + (long) count * ENTRY_SIZE > b.capacity()) return "Bad glyph count";
+
+            CRC32 crc = new CRC32();
+            ByteBuffer body = b.duplicate();
+            body.position(HEADER_SIZE);
+            crc.update(body);
+            if (crc.getValue() != b.getLong(28)) return "Checksum mismatch";
+
+            long longs = (b.capacity() - HEADER_SIZE - (long) count * ENTRY_SIZE) / 8;
+            for (int i = 0; i < count; i++) {
+                int e = HEADER_SIZE + i * ENTRY_SIZE;
+                int w = b.getInt(e + 4), h = b.getInt(e + 8), off = b.getInt(e + 12);
+                if (w < 0 || h < 0 || off < 0 || off + (long) GlyphMask.wordsPerRow(w) * h > longs) return "Glyph out of bounds";
+            }
+            return null;
+        }
+
+        private GlyphMask read(int entry) {
+            int w = buf.getInt(entry + 4), h = buf.getInt(entry + 8), off = buf.getInt(entry + 12);
+            long[] bits = new long[GlyphMask.wordsPerRow(w) * h];
+            for (int i = 0, p = dataStart + off * 8; i < bits.length; i++, p += 8)
+                bits[i] = buf.getLong(p);
+            return GlyphMask.of(w, h, bits);
+        }
+
+        /**
+         * Merges the pending glyphs with the ones already in the page, which then reads from the merged contents.
+         * The page is read first if it hasn't been yet.
+         *
+         * @return the new page file for write(...), null if there's nothing new or the page couldn't be read
+         */
+        private synchronized byte[] merge() {
+            if (pending.isEmpty() || (index == null && !open())) return null;
+
+            Map<Character, GlyphMask> all = new TreeMap<>(pending);//Sorted, so the same glyphs make the same file
+            if (buf != null)
+                index.forEach((c, e) -> all.put(c, read(e)));
+
+            int words = 0;
+            for (GlyphMask m : all.values())
+                words += GlyphMask.wordsPerRow(m.getWidth()) * m.getHeight();
+
+            ByteBuffer b = ByteBuffer.allocate(HEADER_SIZE + all.size() * ENTRY_SIZE + words * 8);
+            b.putInt(MAGIC).putInt(VERSION).putLong(key.fontHash).putInt(key.style).putFloat(key.size).putInt(all.size()).putLong(0);
+
+            int off = 0;
+            for (Map.Entry<Character, GlyphMask> e : all.entrySet()) {
+                GlyphMask m = e.getValue();
+                b.putInt(e.getKey()).putInt(m.getWidth()).putInt(m.getHeight()).putInt(off);
+                off += GlyphMask.wordsPerRow(m.getWidth()) * m.getHeight();
+            }
+            for (GlyphMask m : all.values())
+                for (long l : m.toLongArray())
+                    b.putLong(l);
+
+            CRC32 crc = new CRC32();
+            crc.update(b.array(), HEADER_SIZE, b.capacity() - HEADER_SIZE);
+            b.putLong(28, crc.getValue());
+
+            pending.clear();
+            load(b);
+            return b.array();
+        }
+
+        /**
+         * Replaces the page file. Only touches the file, so it's called without holding the atlas' lock.
+         */
+        private void write(byte[] data) throws IOException {
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(tmp, data);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private synchronized void delete() {
+            index = null;
+            buf = null;
+            fileSize = 0;
+            try {Files.deleteIfExists(path);}
+            catch (IOException e) {
+                logger.error(String.format("Unable to delete glyph page %s | %s", path.getFileName(), e.getMessage()));
+            }
+        }
+    }
+}
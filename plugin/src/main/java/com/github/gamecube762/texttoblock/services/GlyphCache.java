@@ -0,0 +1,168 @@
+package com.github.gamecube762.texttoblock.services;
+
+import com.github.gamecube762.texttoblock.util.BlockCharacter;
+
+import java.awt.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A size bounded LRU cache of BlockCharacters shared by the whole TextToBlockService.
+ *
+ * Glyphs are keyed on the font face name, style, size and character. BlockCharacters are immutable so the same instance is handed out to every BlockString that needs it.
+ */
+public class GlyphCache {
+
+    private final Map<Key, BlockCharacter> map;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), evictions = new LongAdder();//Striped, every render thread hits these
+    private volatile int maxSize;
+
+    /**
+     * @param maxSize Max amount of glyphs to hold. 0 or less disables caching.
+     */
+    public GlyphCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.map = new LinkedHashMap<Key, BlockCharacter>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, BlockCharacter> eldest) {
+                if (size() <= GlyphCache.this.maxSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached BlockCharacter or creates it with the loader if it isn't cached.
+     * The loader runs outside of the lock, so two threads may render the same glyph at once; the first one stored wins.
+     *
+     * @param c character
+     * @param font font
+     * @param loader used to create the BlockCharacter on a miss
+     * @return BlockCharacter
+     */
+    public BlockCharacter get(char c, Font font, Function<Key, BlockCharacter> loader) {
+        Key key = new Key(font, c);
+        BlockCharacter b;
+
+        synchronized (map) {b = map.get(key);}
+        if (b != null) {
+            hits.increment();
+            return b;
+        }
+
+        misses.increment();
+        b = loader.apply(key);
+        if (maxSize <= 0) return b;
+
+        synchronized (map) {
+            BlockCharacter old = map.putIfAbsent(key, b);
+            return old != null ? old : b;
+        }
+    }
+
+    /**
+     * Removes every cached glyph. Should be called when fonts are reloaded.
+     */
+    public void invalidateAll() {
+        synchronized (map) {map.clear();}
+    }
+
+    /**
+     * Removes every cached glyph made with a font of this face name.
+     *
+     * @param fontName Font face name. See Font#getFontName()
+     */
+    public void invalidate(String fontName) {
+        synchronized (map) {map.keySet().removeIf(k -> k.fontName.equals(fontName));}
+    }
+
+    /**
+     * Changes the max size, evicting the least recently used glyphs if needed.
+     *
+     * @param maxSize Max amount of glyphs to hold. 0 or less disables caching.
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        synchronized (map) {
+            if (maxSize <= 0) {map.clear(); return;}
+            Iterator<Key> i = map.keySet().iterator();
+            while (map.size() > maxSize && i.hasNext()) {
+                i.next();
+                i.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        synchronized (map) {return map.size();}
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Cache key; (font name, style, size, character)
+     */
+    public static final class Key {
+        private final String fontName;
+        private final int style;
+        private final float size;
+        private final char character;
+        private final int hash;
+
+        Key(Font font, char character) {
+            this.fontName = font.getFontName();
+            this.style = font.getStyle();
+            this.size = font.getSize2D();
+            this.character = character;
+            this.hash = ((fontName.hashCode() * 31 + style) * 31 + Float.floatToIntBits(size)) * 31 + character;
+        }
+
+        public String getFontName() {
+            return fontName;
+        }
+
+        public int getStyle() {
+            return style;
+        }
+
+        public float getSize() {
+            return size;
+        }
+
+        public char getCharacter() {
+            return character;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return character == k.character && style == k.style && size == k.size && fontName.equals(k.fontName);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.gamecube762.texttoblock.services;
+
+import com.github.gamecube762.texttoblock.Settings;
+import org.slf4j.Logger;
+
+import java.awt.*;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Renders configured font/size/charset combinations into the glyph cache in the background, so the first /ttb doesn't have to.
+ *
+ * Runs on its own daemon thread at the lowest priority. Starting it again, like after a reload, stops the previous run.
+ */
+public class GlyphPrewarmer {
+
+    private final FontManagerService fontManager;
+    private final TextToBlockService textToBlock;
+    private final Logger logger;
+    private Thread thread;
+
+    public GlyphPrewarmer(FontManagerService fontManager, TextToBlockService textToBlock, Logger logger) {
+        this.fontManager = fontManager;
+        this.textToBlock = textToBlock;
+        this.logger = logger;
+    }
+
+    /**
+     * Stops the current run, if any, and starts warming the given entries.
+     *
+     * @param entries font/size/charset combinations to warm
+     */
+    public synchronized void start(List<Settings.Prewarm> entries) {
+        stop();
+        if (entries.isEmpty()) return;
+
+        thread = new Thread(() -> run(entries), "TextToBlock - Glyph prewarm");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Stops the current run. Glyphs already warmed stay cached.
+     */
+    public synchronized void stop() {
+        if (thread != null) thread.interrupt();
+        thread = null;
+    }
+
+    /**
+     * @return true if a run is still going
+     */
+    public synchronized boolean isRunning() {
+        return thread != null && thread.isAlive();
+    }
+
+    private void run(List<Settings.Prewarm> entries) {
+        long start = System.nanoTime();
+        int total = 0, i = 0;
+
+        int glyphs = entries.stream().mapToInt(e -> e.getCharacters().length()).sum();
+        if (glyphs > textToBlock.getGlyphCache().getMaxSize())
+            logger.warn(String.format("Pre-warming %s glyphs but texttoblock.glyphCacheSize is %s, some will be evicted again.", glyphs, textToBlock.getGlyphCache().getMaxSize()));
+
+        for (Settings.Prewarm e : entries) {
+            i++;
+            Optional<Font> fo = e.isDefaultFont() ? fontManager.getDefaultFont(e.getSize()) : fontManager.getFont(e.getFont(), e.getSize());
+            if (!fo.isPresent()) {
+                logger.warn(String.format("Unable to pre-warm %s at %s, font not found.", e.getFont(), e.getSize()));
+                continue;
+            }
+
+            long s = System.nanoTime();
+            Font f = fo.get();
+            String chars = e.getCharacters();
+            for (int c = 0; c < chars.length(); c++) {
+                if (Thread.currentThread().isInterrupted()) return;
+                textToBlock.getBlockCharacter(chars.charAt(c), f);
+            }
+
+            total += chars.length();
+            logger.info(String.format("Pre-warmed %s glyphs of %s at %s (%s/%s) in %sms.", chars.length(), f.getFontName(), e.getSize(), i, entries.size(), (System.nanoTime() - s) / 1000000));
+        }
+
+        logger.info(String.format("Pre-warmed %s glyphs in %sms.", total, (System.nanoTime() - start) / 1000000));
+    }
+}
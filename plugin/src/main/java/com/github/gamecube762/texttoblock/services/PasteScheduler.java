@@ -0,0 +1,315 @@
+package com.github.gamecube762.texttoblock.services;
+
+import com.github.gamecube762.texttoblock.util.BlockString;
+import com.github.gamecube762.texttoblock.util.BlockVolume;
+import com.github.gamecube762.texttoblock.util.LatencyHistogram;
+import com.github.gamecube762.texttoblock.util.Orientation;
+import com.github.gamecube762.texttoblock.util.PasteJob;
+import com.github.gamecube762.texttoblock.util.Spans;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.scheduler.Task;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Spreads pastes over multiple ticks so a big BlockString doesn't freeze the server.
+ *
+ * Offsets are worked out on Sponge's async executor, blocks are placed on the main thread every tick until either the block or the time budget runs out.
+ */
+public class PasteScheduler {
+
+    public static final int DEFAULT_MAX_BLOCKS_PER_TICK = 20000;
+    public static final long DEFAULT_MAX_MILLIS_PER_TICK = 10;
+
+    private final Object plugin;
+    private final Queue<PasteJob> jobs = new ConcurrentLinkedQueue<>();
+    private volatile int maxBlocksPerTick;
+    private volatile long maxNanosPerTick;
+    private Executor asyncExecutor;
+    private Task task;
+
+    private final LongAdder blocksPlaced = new LongAdder(), jobsSubmitted = new LongAdder(), jobsDone = new LongAdder(), jobsCancelled = new LongAdder(), jobsFailed = new LongAdder();
+    private final LatencyHistogram prepareTimes = new LatencyHistogram(), pasteTimes = new LatencyHistogram(), tickTimes = new LatencyHistogram();
+
+    /**
+     * @param plugin Plugin to run the tasks as
+     * @param maxBlocksPerTick Max blocks placed in a tick, over all jobs
+     * @param maxMillisPerTick Max milliseconds of main thread time spent placing blocks in a tick
+     */
+    public PasteScheduler(Object plugin, int maxBlocksPerTick, long maxMillisPerTick) {
+        this.plugin = plugin;
+        setBudget(maxBlocksPerTick, maxMillisPerTick);
+    }
+
+    /**
+     * Starts the tick task. Does nothing if already started.
+     */
+    public void start() {
+        if (task != null) return;
+        asyncExecutor = Sponge.getScheduler().createAsyncExecutor(plugin);
+        task = Sponge.getScheduler().createTaskBuilder()
+                .name("TextToBlock - Paste")
+                .intervalTicks(1)
+                .execute(this::tick)
+                .submit(plugin);
+    }
+
+    /**
+     * Stops the tick task and cancels every job.
+     */
+    public void stop() {
+        if (task != null) task.cancel();
+        task = null;
+        PasteJob j;
+        while ((j = jobs.poll()) != null)
+            j.cancel();
+    }
+
+    /**
+     * Queues the BlockString to be pasted at the location.
+     * The returned job can be used to watch progress, wait for completion or cancel the paste.
+     *
+     * @param blockString BlockString to paste
+     * @param location Location to paste at, bottom-left
+     * @param blockType Block to use
+     * @param cause Cause
+     * @return the paste job
+     */
+    public PasteJob submit(BlockString blockString, Location<World> location, BlockType blockType, Cause cause) {
+        return submitSpans(blockString::getBlockSpans, location, Orientation.EAST, blockType, cause);
+    }
+
+    /**
+     * Queues the BlockVolume to be pasted at the location.
+     *
+     * @param volume BlockVolume to paste
+     * @param location Location to paste at, bottom-left
+     * @param cause Cause
+     * @return the paste job
+     */
+    public PasteJob submit(BlockVolume volume, Location<World> location, Cause cause) {
+        return submitSpans(volume::getBlockSpans, location, volume.getOrientation(), volume.getBlockType(), cause);
+    }
+
+    /**
+     * Queues the offsets to be pasted at the location. The supplier is ran off the main thread.
+     *
+     * @param offsets supplier of x,y pairs relative to the location
+     * @param location Location to paste at, bottom-left
+     * @param blockType Block to use
+     * @param cause Cause
+     * @return the paste job
+     */
+    public PasteJob submit(Supplier<int[]> offsets, Location<World> location, BlockType blockType, Cause cause) {
+        return submit(offsets, location, Orientation.EAST, blockType, cause);
+    }
+
+    /**
+     * Queues the offsets to be pasted at the location. The supplier is ran off the main thread.
+     *
+     * @param offsets supplier of x,y pairs relative to the location
+     * @param location Location to paste at, bottom-left
+     * @param orientation Direction the text is written in
+     * @param blockType Block to use
+     * @param cause Cause
+     * @return the paste job
+     */
+    public PasteJob submit(Supplier<int[]> offsets, Location<World> location, Orientation orientation, BlockType blockType, Cause cause) {
+        return submitSpans(() -> Spans.fromOffsets(offsets.get()), location, orientation, blockType, cause);
+    }
+
+    /**
+     * Queues the row spans to be pasted at the location. The supplier is ran off the main thread.
+     *
+     * @param spans supplier of y,x0,x1 triples relative to the location, see Spans
+     * @param location Location to paste at, bottom-left
+     * @param orientation Direction the text is written in
+     * @param blockType Block to use
+     * @param cause Cause
+     * @return the paste job
+     */
+    public PasteJob submitSpans(Supplier<int[]> spans, Location<World> location, Orientation orientation, BlockType blockType, Cause cause) {
+        return submitSpans(spans, location, orientation, 1, blockType, cause);
+    }
+
+    /**
+     * Queues the row spans to be pasted at the location, every block depth blocks deep. The supplier is ran off the main thread.
+     *
+     * @param spans supplier of y,x0,x1 triples relative to the location, see Spans
+     * @param location Location to paste at, bottom-left
+     * @param orientation Direction the text is written in
+     * @param depth Blocks deep every block is, see Orientation#depthX(...)
+     * @param blockType Block to use
+     * @param cause Cause
+     * @return the paste job
+     */
+    public PasteJob submitSpans(Supplier<int[]> spans, Location<World> location, Orientation orientation, int depth, BlockType blockType, Cause cause) {
+        PasteJob job = new PasteJob(location, orientation, depth, blockType, cause);
+        long start = System.nanoTime();
+        jobsSubmitted.increment();
+        job.getCompletion().whenComplete((j, t) -> {
+            if (t == null) {
+                pasteTimes.record(System.nanoTime() - start);
+                jobsDone.increment();
+            }
+            else (t instanceof CancellationException ? jobsCancelled : jobsFailed).increment();
+        });
+        jobs.add(job);
+
+        Executor e = asyncExecutor;
+        CompletableFuture.supplyAsync(spans, e != null ? e : Runnable::run).whenComplete((s, t) -> {
+            prepareTimes.record(System.nanoTime() - start);
+            if (t != null) job.fail(t);
+            else job.preparedSpans(s);
+        });
+        return job;
+    }
+
+    private void tick() {
+        if (jobs.isEmpty()) return;
+
+        long start = System.nanoTime(), deadline = start + maxNanosPerTick;
+        int max = maxBlocksPerTick, budget = max;
+
+        Iterator<PasteJob> i = jobs.iterator();
+        while (i.hasNext() && budget > 0 && System.nanoTime() < deadline) {
+            PasteJob job = i.next();
+            if (job.isFinished()) {
+                i.remove();
+                continue;
+            }
+            if (job.getState() != PasteJob.State.QUEUED)//Still preparing, let the next job have a go
+                continue;
+
+            budget -= job.placeSome(budget, deadline);
+            if (job.isFinished())
+                i.remove();
+        }
+
+        if (budget < max) {//Only ticks that placed something; waiting on a preparing job would drag the numbers down
+            blocksPlaced.add(max - budget);
+            tickTimes.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Changes the per tick budget. Applies from the next tick.
+     *
+     * @param maxBlocksPerTick Max blocks placed in a tick, over all jobs
+     * @param maxMillisPerTick Max milliseconds of main thread time spent placing blocks in a tick
+     */
+    public void setBudget(int maxBlocksPerTick, long maxMillisPerTick) {
+        this.maxBlocksPerTick = Math.max(1, maxBlocksPerTick);
+        this.maxNanosPerTick = TimeUnit.MILLISECONDS.toNanos(Math.max(1, maxMillisPerTick));
+    }
+
+    public int getMaxBlocksPerTick() {
+        return maxBlocksPerTick;
+    }
+
+    public long getMaxMillisPerTick() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanosPerTick);
+    }
+
+    /**
+     * Get the amount of jobs that are still working out their blocks.
+     *
+     * @return preparing jobs
+     */
+    public int getPreparingCount() {
+        return (int) jobs.stream().filter(j -> j.getState() == PasteJob.State.PREPARING).count();
+    }
+
+    /**
+     * Get the amount of jobs that are ready but haven't placed a block yet.
+     *
+     * @return queued jobs
+     */
+    public int getQueuedCount() {
+        return (int) jobs.stream().filter(j -> j.getState() == PasteJob.State.QUEUED && j.getPlaced() == 0).count();
+    }
+
+    /**
+     * Get the amount of jobs that have started placing blocks and aren't done yet.
+     *
+     * @return active jobs
+     */
+    public int getActiveCount() {
+        return (int) jobs.stream().filter(j -> j.getState() == PasteJob.State.QUEUED && j.getPlaced() > 0).count();
+    }
+
+    /**
+     * Get the amount of blocks placed by every job so far.
+     *
+     * @return blocks placed
+     */
+    public long getBlocksPlaced() {
+        return blocksPlaced.sum();
+    }
+
+    public long getJobsSubmitted() {
+        return jobsSubmitted.sum();
+    }
+
+    public long getJobsDone() {
+        return jobsDone.sum();
+    }
+
+    public long getJobsCancelled() {
+        return jobsCancelled.sum();
+    }
+
+    public long getJobsFailed() {
+        return jobsFailed.sum();
+    }
+
+    /**
+     * Get how long jobs took to work out their blocks, off the main thread; rendering and layout.
+     *
+     * @return prepare times
+     */
+    public LatencyHistogram getPrepareTimes() {
+        return prepareTimes;
+    }
+
+    /**
+     * Get how long finished jobs took from being submitted to the last block being placed.
+     *
+     * @return paste times
+     */
+    public LatencyHistogram getPasteTimes() {
+        return pasteTimes;
+    }
+
+    /**
+     * Get how much main thread time was spent placing blocks, per tick that placed any.
+     *
+     * @return tick times
+     */
+    public LatencyHistogram getTickTimes() {
+        return tickTimes;
+    }
+
+    /**
+     * Get the jobs that are preparing or queued.
+     *
+     * @return unmodifiable view of the jobs
+     */
+    public Collection<PasteJob> getJobs() {
+        return Collections.unmodifiableCollection(jobs);
+    }
+}
@@ -1,17 +1,11 @@
 package com.github.gamecube762.texttoblock.services;
 
 import com.flowpowered.math.vector.Vector2d;
-import com.github.gamecube762.texttoblock.util.Alignment;
 import com.github.gamecube762.texttoblock.util.BlockCharacter;
+import com.github.gamecube762.texttoblock.util.BlockSink;
 import com.github.gamecube762.texttoblock.util.BlockString;
 
-import javax.imageio.ImageIO;
-import javax.swing.*;
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +23,20 @@ public interface TextToBlock {
      */
     Map<Character, BlockCharacter> getBlockCharactersMap(String text, Font font);
 
+    /**
+     * Gets a shared BlockCharacter from the glyph cache, rendering it if it isn't cached yet.
+     *
+     * @param c character
+     * @param font desired font to use
+     * @return cached BlockCharacter
+     */
+    BlockCharacter getBlockCharacter(char c, Font font);
+
+    /**
+     * Removes all BlockCharacters from the glyph cache.
+     */
+    void invalidateGlyphCache();
+
     /**
      * You can just use new BlockString(...)
      *
@@ -58,4 +66,13 @@ public interface TextToBlock {
      */
     List<Vector2d> getBlockPositions(String text, Font font) ;
 
+    /**
+     * Gives the same positions as getBlockPositions(...) to the sink, without making a list.
+     *
+     * @param text input text
+     * @param font desired font
+     * @param sink receives x,y,0 of every block
+     */
+    void forEachBlock(String text, Font font, BlockSink sink);
+
 }
@@ -0,0 +1,291 @@
+package com.github.gamecube762.texttoblock.services;
+
+import com.flowpowered.math.vector.Vector2d;
+import com.github.gamecube762.texttoblock.util.BlockCharacter;
+import com.github.gamecube762.texttoblock.util.BlockSink;
+import com.github.gamecube762.texttoblock.util.BlockString;
+import com.github.gamecube762.texttoblock.util.GlyphMask;
+import com.github.gamecube762.texttoblock.util.JfrBridge;
+import com.github.gamecube762.texttoblock.util.LatencyHistogram;
+import com.github.gamecube762.texttoblock.util.RenderContext;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TextToBlock, a service used for creating BlockStrings and BlockCharacters.
+ */
+public class TextToBlockService implements TextToBlock{
+
+    private static TextToBlockService me;
+    /**
+     * Deprecated as it's a workaround for the BlockChar and BlockString classes. Not sure if I should keep this.
+     *
+     * @return this
+     */
+    @Deprecated
+    public static TextToBlockService getMe() {
+        return me;
+    }
+
+    public static final int DEFAULT_GLYPH_CACHE_SIZE = 4096;
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+    private static final int MIN_CHARS_PER_TASK = 16;
+
+    private FontManagerService fontManager;
+    private final GlyphCache glyphCache;
+    private volatile GlyphAtlas atlas;
+    private volatile Executor renderExecutor = ForkJoinPool.commonPool();
+    private volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private ForkJoinPool ownPool;
+    private final LongAdder glyphsRasterized = new LongAdder();
+    private final LatencyHistogram rasterizeTimes = new LatencyHistogram();
+
+    /**
+     * I'd suggest not making a new one. Why would you even need new one? Something wrong with the current one that you'd want a new one? Or do you like to so much that you require more?
+     *
+     * @param fontManager Pancakes Delivery Service.
+     */
+    public TextToBlockService(FontManagerService fontManager) {
+        this(fontManager, DEFAULT_GLYPH_CACHE_SIZE);
+    }
+
+    /**
+     * @param fontManager Pancakes Delivery Service.
+     * @param glyphCacheSize Max amount of BlockCharacters to keep cached. 0 or less disables caching.
+     */
+    public TextToBlockService(FontManagerService fontManager, int glyphCacheSize) {
+        if (me == null) me = this;
+        this.fontManager = fontManager;
+        this.glyphCache = new GlyphCache(glyphCacheSize);
+
+        if (fontManager != null)
+            fontManager.addReloadListener(glyphCache::invalidateAll);
+    }
+
+    /**
+     * Returns a map of BlockChars that the string uses.
+     *
+     * When the text has at least parallelThreshold distinct characters, they're rendered in parallel on the render executor, each thread using its own RenderContext.
+     * The calling thread renders a share as well. The result is the same either way.
+     *
+     * @param text Text to use
+     * @param font Desired font
+     * @return a map of BlockChars that the string uses
+     */
+    public Map<Character, BlockCharacter> getBlockCharactersMap(String text, Font font) {
+        int[] chars = text.chars().distinct().toArray();
+        BlockCharacter[] out = new BlockCharacter[chars.length];
+
+        Executor ex = renderExecutor;
+        int threads = ex instanceof ForkJoinPool ? ((ForkJoinPool) ex).getParallelism() + 1 : Runtime.getRuntime().availableProcessors();//+1 for the calling thread
+        int tasks = Math.min(threads, chars.length / MIN_CHARS_PER_TASK);
+        if (ex == null || chars.length < parallelThreshold || tasks < 2)
+            render(chars, out, 0, chars.length, font);
+        else {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks - 1];
+            for (int t = 1; t < tasks; t++) {
+                int from = chars.length * t / tasks, to = chars.length * (t + 1) / tasks;
+                futures[t - 1] = CompletableFuture.runAsync(() -> render(chars, out, from, to, font), ex);
+            }
+            render(chars, out, 0, chars.length / tasks, font);
+            CompletableFuture.allOf(futures).join();
+        }
+
+        Map<Character, BlockCharacter> a = new HashMap<>(chars.length * 4 / 3 + 1);
+        for (int i = 0; i < chars.length; i++)
+            a.put((char) chars[i], out[i]);
+        return a;
+    }
+
+    private void render(int[] chars, BlockCharacter[] out, int from, int to, Font font) {
+        for (int i = from; i < to; i++)
+            out[i] = getBlockCharacter((char) chars[i], font);
+    }
+
+    /**
+     * Sets the executor getBlockCharactersMap uses to render in parallel. Null to always render on the calling thread.
+     * Defaults to the common ForkJoinPool.
+     *
+     * @param executor render executor
+     */
+    public void setRenderExecutor(Executor executor) {
+        this.renderExecutor = executor;
+    }
+
+    /**
+     * Renders on a pool of this many threads; 0 or less to use the common ForkJoinPool.
+     * Replaces the render executor; a pool made by a previous call is shut down.
+     *
+     * @param threads render threads
+     */
+    public synchronized void setRenderThreads(int threads) {
+        ForkJoinPool old = ownPool;
+        ownPool = threads > 0 ? new ForkJoinPool(threads) : null;
+        renderExecutor = threads > 0 ? ownPool : ForkJoinPool.commonPool();
+        if (old != null) old.shutdown();
+    }
+
+    /**
+     * @param parallelThreshold distinct characters needed before getBlockCharactersMap renders in parallel
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Gets the BlockCharacter from the glyph cache, rendering it if it isn't cached yet.
+     * The returned BlockCharacter is shared, don't expect a new instance.
+     *
+     * @param c character
+     * @param font desired font to use
+     * @return cached BlockCharacter
+     */
+    public BlockCharacter getBlockCharacter(char c, Font font) {
+        if (c == '\n') return BlockCharacter.NEWLINE;
+        return glyphCache.get(c, font, k -> loadBlockCharacter(c, font));
+    }
+
+    /**
+     * Glyph cache miss; reads the glyph from the atlas or renders it and adds it to the atlas.
+     */
+    private BlockCharacter loadBlockCharacter(char c, Font font) {
+        GlyphAtlas a = atlas;
+        if (a == null) return toBlockCharacter(c, font);
+
+        long hash = fontManager != null ? fontManager.getFontFileHash(font) : font.getFontName().hashCode() & 0xFFFFFFFFL;
+        GlyphMask mask = a.get(hash, font.getStyle(), font.getSize2D(), c);
+        if (mask != null)
+            return new BlockCharacter(c, mask.getWidth(), mask.getHeight(), font, mask);
+
+        BlockCharacter b = toBlockCharacter(c, font);
+        a.put(hash, font.getStyle(), font.getSize2D(), c, b.getMask());
+        return b;
+    }
+
+    /**
+     * Sets the on-disk atlas glyphs are read from before rendering them. Null to not use one.
+     *
+     * @param atlas glyph atlas
+     */
+    public void setGlyphAtlas(GlyphAtlas atlas) {
+        this.atlas = atlas;
+    }
+
+    /**
+     * @return the on-disk glyph atlas or null if there isn't one
+     */
+    public GlyphAtlas getGlyphAtlas() {
+        return atlas;
+    }
+
+    /**
+     * Get the cache that holds the BlockCharacters rendered by this service.
+     *
+     * @return glyph cache
+     */
+    public GlyphCache getGlyphCache() {
+        return glyphCache;
+    }
+
+    /**
+     * Get the amount of glyphs drawn by toBlockCharacter(...), cache and atlas hits don't count.
+     *
+     * @return glyphs rasterized
+     */
+    public long getGlyphsRasterized() {
+        return glyphsRasterized.sum();
+    }
+
+    /**
+     * Get how long drawing a glyph took.
+     *
+     * @return rasterize times
+     */
+    public LatencyHistogram getRasterizeTimes() {
+        return rasterizeTimes;
+    }
+
+    /**
+     * Removes all BlockCharacters from the glyph cache.
+     */
+    public void invalidateGlyphCache() {
+        glyphCache.invalidateAll();
+    }
+
+    /**
+     * You can just use new BlockString(...)
+     *
+     * @param text Text to be used
+     * @param font Desired font
+     * @return BlockString from Desired text and font
+     */
+    public BlockString toBlockString(String text, Font font) {
+        return new BlockString(text, font);
+    }
+
+    /**
+     * Converts a character into a BlockChar with the desired font
+     *
+     * For this to work, we draw the character onto an image and scan through the pixels to create a map of pixel positions. With these positions, we are able to place blocks in the same locations in order to create the text.
+     * Drawing is done in this thread's RenderContext; the scratch image is reused between characters.
+     *
+     * @param c character
+     * @param f desired font to use
+     * @return Waffles! (It's actually the BlockChar)
+     */
+    public BlockCharacter toBlockCharacter(char c, Font f) {
+        if (c == '\n') return BlockCharacter.NEWLINE;
+
+        long start = System.nanoTime();
+        GlyphMask mask = RenderContext.get().render(c + "", f);
+        long nanos = System.nanoTime() - start;
+        rasterizeTimes.record(nanos);
+        glyphsRasterized.increment();
+        if (JfrBridge.INSTANCE.isGlyphRasterizedEnabled())
+            JfrBridge.INSTANCE.glyphRasterized(f, c, mask.count(), nanos);
+        return new BlockCharacter(c, mask.getWidth(), mask.getHeight(), f, mask);
+    }
+
+    /**
+     * Returns a list of positions for block placement that shapes out the inputted text.
+     *
+     * @param text input text
+     * @param font desired font
+     * @return list of 2d positions
+     */
+    public List<Vector2d> getBlockPositions(String text, Font font) {
+        List<Vector2d> pos = new ArrayList<>();
+        forEachBlock(text, font, (x, y, z) -> pos.add(new Vector2d(x, y)));
+        return pos;
+    }
+
+    /**
+     * Gives the same positions as getBlockPositions(...) to the sink, top row first, without making a list.
+     *
+     * @param text input text
+     * @param font desired font
+     * @param sink receives x,y,0 of every block
+     */
+    public void forEachBlock(String text, Font font, BlockSink sink) {
+        GlyphMask mask = RenderContext.get().render(text, font);
+        for (int y = mask.getHeight() - 1; y >= 0; y--)
+            for (int x = mask.nextSetBit(y, 0); x >= 0; x = mask.nextSetBit(y, x + 1))
+                sink.accept(x, y, 0);
+    }
+
+    /**
+     * Testing test stuff
+     * @param args *Pirate*
+     * @throws Exception if there is one
+     */
+    public static void main(String[] args) throws Exception {}
+
+}
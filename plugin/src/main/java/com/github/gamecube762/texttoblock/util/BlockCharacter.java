@@ -0,0 +1,131 @@
+package com.github.gamecube762.texttoblock.util;
+
+import com.flowpowered.math.vector.Vector2d;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a character based on the inputted font/character.
+ * Immutable; instances are shared between BlockStrings through the glyph cache.
+ *
+ * The Glyph, with pasting into a Sponge world on top.
+ */
+public class BlockCharacter extends Glyph {
+
+    public static final BlockCharacter NEWLINE = new BlockCharacter('\n', 0, 0, null, GlyphMask.EMPTY);
+
+    private volatile List<Vector2d> blockMap;//Built on first getBlockMap()
+
+    /*
+     * Since we can do new BlockString("Waffles"), I feel we should be able to do the same with BlockCharacters.
+     * But as always there are complications..
+     * I'd either have to duplicate ttb.toBlockCharacter another time or create a chardata class...
+     * CharData is redundant as that what BlockCharacter is...
+     */
+
+    /**
+     * Deprecated to discourage users from using this. Use TextToBlock#toBlockCharacter(...)
+     * Points outside of width x height can't be kept in the GlyphMask and are skipped.
+     *
+     * @param character c
+     * @param width w
+     * @param height h
+     * @param font f
+     * @param blockMap b
+     */
+    @Deprecated
+    public BlockCharacter(char character, int width, int height, Font font, List<Vector2d> blockMap) {
+        this(character, width, height, font, toMask(width, height, blockMap));
+    }
+
+    /**
+     * Deprecated to discourage users from using this. Use TextToBlock#toBlockCharacter(...)
+     *
+     * @param character c
+     * @param width w
+     * @param height h
+     * @param font f
+     * @param mask m
+     */
+    @Deprecated
+    public BlockCharacter(char character, int width, int height, Font font, GlyphMask mask) {
+        super(character, width, height, font, mask);
+    }
+
+    private static GlyphMask toMask(int width, int height, List<Vector2d> blockMap) {
+        GlyphMask.Builder b = GlyphMask.builder(width, height);
+        blockMap.forEach(a -> {
+            int x = a.getFloorX(), y = a.getFloorY();
+            if (x >= 0 && y >= 0 && x < width && y < height)
+                b.set(x, y);
+        });
+        return b.build();
+    }
+
+    /**
+     * Pastes this BlockCharacter at desired location.
+     * Places from Bottom-Left
+     *
+     * @param location Location to paste at
+     * @param blockType Block to use
+     * @param cause Cause
+     */
+    public void pasteAt(Location<World> location, BlockType blockType, Cause cause) {
+        pasteAt(location.getExtent(), location.getBlockX(), location.getBlockY(), location.getBlockZ(), blockType.getDefaultState(), cause);
+    }
+
+    /**
+     * Pastes this BlockCharacter at the block coordinates.
+     * Places from Bottom-Left. Places the glyph's spans a run at a time, see BlockRuns; nothing is allocated per block.
+     *
+     * @param world World to paste in
+     * @param x x to paste at
+     * @param y y to paste at
+     * @param z z to paste at
+     * @param state Block to use
+     * @param cause Cause
+     */
+    public void pasteAt(World world, int x, int y, int z, BlockState state, Cause cause) {
+        pasteAt(new BlockRuns(world, state, cause), x, y, z);
+    }
+
+    /**
+     * Places the glyph's spans through the runs, along +x.
+     *
+     * @return blocks placed
+     */
+    int pasteAt(BlockRuns runs, int x, int y, int z) {
+        int[] s = spans();
+        int placed = 0;
+        for (int i = 0; i < s.length; i += 3)
+            placed += runs.fill(x + s[i + 1], y + s[i], z, 1, 0, s[i + 2] - s[i + 1]);
+        return placed;
+    }
+
+    /**
+     * Get the map for block positions that are used to shape this character.
+     * The list is unmodifiable and is built from the mask the first time it's asked for; prefer getMask() where possible.
+     *
+     * @return List of 2D block positions
+     */
+    public List<Vector2d> getBlockMap() {
+        List<Vector2d> a = blockMap;
+        if (a == null) {
+            GlyphMask mask = getMask();
+            List<Vector2d> b = new ArrayList<>(mask.count());
+            for (int y = getHeight() - 1; y >= 0; y--)//Same order toBlockCharacter used to scan in; top row first.
+                for (int x = mask.nextSetBit(y, 0); x >= 0; x = mask.nextSetBit(y, x + 1))
+                    b.add(new Vector2d(x, y));
+            blockMap = a = Collections.unmodifiableList(b);
+        }
+        return a;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.gamecube762.texttoblock.util;
+
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.world.Chunk;
+import org.spongepowered.api.world.World;
+import org.spongepowered.api.world.extent.Extent;
+
+/**
+ * Places straight runs of blocks, like the row spans of a glyph, through the chunk they're in.
+ *
+ * A run is checked against the world's height once, then split at chunk borders; the chunk of every piece is looked up once and its blocks are set on the chunk,
+ * rather than going through the World for every block. The last chunk is kept, so runs in the same chunk don't look it up again.
+ * Sponge has no API for chunk sections, so finding the section is left to Chunk#setBlock for every block.
+ *
+ * Made for a single paste on the main thread; don't keep one around, the chunk it holds may unload.
+ */
+final class BlockRuns {
+
+    private final World world;
+    private final BlockState state;
+    private final Cause cause;
+    private final int minY, maxY;
+
+    private Extent chunk;//Last chunk used, the world itself if it couldn't be loaded
+    private int chunkX, chunkZ;
+
+    BlockRuns(World world, BlockState state, Cause cause) {
+        this.world = world;
+        this.state = state;
+        this.cause = cause;
+        this.minY = world.getBlockMin().getY();
+        this.maxY = world.getBlockMax().getY();
+    }
+
+    /**
+     * Places n blocks in a line starting at x,y,z, going dx,dz every block. Only one of dx and dz may be set.
+     * Runs above or below the world are skipped whole.
+     *
+     * @return blocks placed
+     */
+    int fill(int x, int y, int z, int dx, int dz, int n) {
+        if (n <= 0 || y < minY || y > maxY) return 0;
+
+        for (int left = n; left > 0; ) {
+            int k = Math.min(left, dx > 0 ? 16 - (x & 15) : dx < 0 ? (x & 15) + 1 : dz > 0 ? 16 - (z & 15) : dz < 0 ? (z & 15) + 1 : left);//Blocks left in this chunk
+            Extent target = chunkAt(x >> 4, z >> 4);
+            for (int i = 0; i < k; i++, x += dx, z += dz)
+                target.setBlock(x, y, z, state, cause);
+            left -= k;
+        }
+        return n;
+    }
+
+    private Extent chunkAt(int cx, int cz) {
+        if (chunk == null || cx != chunkX || cz != chunkZ) {
+            Chunk c = world.getChunk(cx, 0, cz).orElse(null);
+            if (c == null)
+                c = world.loadChunk(cx, 0, cz, true).orElse(null);
+            chunk = c != null ? c : world;//World#setBlock deals with it
+            chunkX = cx;
+            chunkZ = cz;
+        }
+        return chunk;
+    }
+}
@@ -0,0 +1,418 @@
+package com.github.gamecube762.texttoblock.util;
+
+import com.github.gamecube762.texttoblock.services.FontManagerService;
+import com.github.gamecube762.texttoblock.services.TextToBlockService;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import java.awt.*;
+import java.util.*;
+
+/**
+ * BlockString; Your string, in the form of Blocks!
+ */
+public class BlockString {
+
+    private Map<Character, BlockCharacter> bCharsStorage;//used to prevent holding duplicate chars. Values are shared from the glyph cache.
+    private String text;
+    private Font font;
+    private Alignment alignment = Alignment.LEFT;
+    private BlockLayout<BlockCharacter> layout;
+
+    public BlockString(String text) {
+        this(text, null);
+    }
+
+    public BlockString(String text, Font font) {
+        this(text, font, Alignment.LEFT);
+    }
+
+    public BlockString(String text, Font font, Alignment alignment) {
+        if (font == null)
+            font = FontManagerService.getMe().getDefaultFont().get();
+
+        this.text = text;
+        this.font = font;
+        this.alignment = alignment;
+        this.bCharsStorage = TextToBlockService.getMe().getBlockCharactersMap(text, font);
+        this.layout = BlockLayout.of(text, bCharsStorage, BlockCharacter.NEWLINE, alignment);
+    }
+
+    /**
+     * Pastes the BlockString at desired location.
+     * Places from Bottom-Left
+     *
+     * @param location Location to paste at
+     * @param blockType Block to use
+     * @param cause Cause
+     */
+    public void pasteAt(Location<World> location, BlockType blockType, Cause cause) {
+        pasteAt(location.getExtent(), location.getBlockX(), location.getBlockY(), location.getBlockZ(), blockType.getDefaultState(), cause);
+    }
+
+    /**
+     * Pastes the BlockString at the block coordinates.
+     * Places from Bottom-Left, a run of blocks at a time, see BlockRuns. Nothing is allocated per character or per block.
+     *
+     * @param world World to paste in
+     * @param x x to paste at
+     * @param y y to paste at
+     * @param z z to paste at
+     * @param state Block to use
+     * @param cause Cause
+     */
+    public void pasteAt(World world, int x, int y, int z, BlockState state, Cause cause) {
+        BlockLayout<BlockCharacter> layout = this.layout;
+        boolean jfr = JfrBridge.INSTANCE.isTextPastedEnabled();
+        long start = jfr ? System.nanoTime() : 0;
+        BlockRuns runs = new BlockRuns(world, state, cause);
+        int blocks = 0;
+
+        for (int i = 0; i < layout.getLineCount(); i++) {
+            int ly = y + layout.getLineY(i);
+            for (int c = layout.getLineStart(i); c < layout.getLineEnd(i); c++)
+                blocks += layout.getGlyph(c).pasteAt(runs, x + layout.getCharX(c), ly, z);
+        }
+
+        if (jfr)
+            JfrBridge.INSTANCE.textPasted(text.length(), blocks, world.getName(), System.nanoTime() - start);
+    }
+
+    /**
+     * Pastes the BlockString at desired location, scaled up, written east.
+     * Every pixel becomes a scale by scale square of blocks, depth blocks deep along +z. Glyphs stay the size they were rendered at.
+     * Places from Bottom-Left
+     *
+     * @param location Location to paste at
+     * @param blockType Block to use
+     * @param cause Cause
+     * @param scale blocks per pixel along x and y
+     * @param depth blocks per pixel along z
+     */
+    public void pasteAt(Location<World> location, BlockType blockType, Cause cause, int scale, int depth) {
+        pasteAt(location, Orientation.EAST, blockType, cause, scale, depth);
+    }
+
+    /**
+     * Pastes the BlockString at desired location, scaled up.
+     * Every pixel becomes a scale by scale square of blocks, depth blocks deep; see Orientation#depthX(...). Glyphs stay the size they were rendered at.
+     * Places from Bottom-Left
+     *
+     * @param location Location to paste at
+     * @param orientation Direction the text is written in
+     * @param blockType Block to use
+     * @param cause Cause
+     * @param scale blocks per pixel along the text and y
+     * @param depth blocks per pixel into the text
+     */
+    public void pasteAt(Location<World> location, Orientation orientation, BlockType blockType, Cause cause, int scale, int depth) {
+        pasteAt(location.getExtent(), location.getBlockX(), location.getBlockY(), location.getBlockZ(), orientation, blockType.getDefaultState(), cause, scale, depth);
+    }
+
+    /**
+     * Pastes the BlockString at the block coordinates, scaled up, written east. See pasteAt(Location, BlockType, Cause, int, int)
+     *
+     * @param world World to paste in
+     * @param x x to paste at
+     * @param y y to paste at
+     * @param z z to paste at
+     * @param state Block to use
+     * @param cause Cause
+     * @param scale blocks per pixel along x and y
+     * @param depth blocks per pixel along z
+     */
+    public void pasteAt(World world, int x, int y, int z, BlockState state, Cause cause, int scale, int depth) {
+        pasteAt(world, x, y, z, Orientation.EAST, state, cause, scale, depth);
+    }
+
+    /**
+     * Pastes the BlockString at the block coordinates, scaled up. See pasteAt(Location, Orientation, BlockType, Cause, int, int)
+     *
+     * @param world World to paste in
+     * @param x x to paste at
+     * @param y y to paste at
+     * @param z z to paste at
+     * @param orientation Direction the text is written in
+     * @param state Block to use
+     * @param cause Cause
+     * @param scale blocks per pixel along the text and y
+     * @param depth blocks per pixel into the text
+     */
+    public void pasteAt(World world, int x, int y, int z, Orientation orientation, BlockState state, Cause cause, int scale, int depth) {
+        boolean jfr = JfrBridge.INSTANCE.isTextPastedEnabled();
+        long start = jfr ? System.nanoTime() : 0;
+
+        int[] s = getBlockSpans(scale);
+        BlockRuns runs = new BlockRuns(world, state, cause);
+        int dx = orientation.worldX(0, 1), dz = orientation.worldZ(0, 1);
+        int blocks = 0;
+        for (int d = 0; d < depth; d++) {
+            int bx = orientation.depthX(x, d), bz = orientation.depthZ(z, d);
+            for (int i = 0; i < s.length; i += 3)
+                blocks += runs.fill(orientation.worldX(bx, s[i + 1]), y + s[i], orientation.worldZ(bz, s[i + 1]), dx, dz, s[i + 2] - s[i + 1]);
+        }
+
+        if (jfr)
+            JfrBridge.INSTANCE.textPasted(text.length(), blocks, world.getName(), System.nanoTime() - start);
+    }
+
+    /**
+     * Pastes the BlockString at desired location and returns a handle that can change the text in place later.
+     * Places from Bottom-Left
+     *
+     * @param location Location to paste at
+     * @param orientation Direction the text is written in
+     * @param blockType Block to use
+     * @param cause Cause
+     * @return the placed text, use PlacedText#update(...) to change it
+     */
+    public PlacedText pasteTracked(Location<World> location, Orientation orientation, BlockType blockType, Cause cause) {
+        PlacedText placed = new PlacedText(location, orientation, blockType, cause);
+        placed.update(this);
+        return placed;
+    }
+
+    /**
+     * Gives every block of the BlockString to the sink, relative to the bottom-left. Nothing is allocated.
+     * Goes through the text line by line, character by character.
+     *
+     * @param sink receives x,y,0 of every block
+     */
+    public void forEachBlock(BlockSink sink) {
+        layout.forEachBlock(sink);
+    }
+
+    /**
+     * Gives every block of the BlockString, scaled up, to the sink. See pasteAt(..., scale, depth)
+     *
+     * @param sink receives x,y,z of every block
+     * @param scale blocks per pixel along x and y
+     * @param depth blocks per pixel along z
+     */
+    public void forEachBlock(BlockSink sink, int scale, int depth) {
+        if (scale <= 1 && depth == 1) {//depth 0 places nothing, same as pasteAt(...)
+            forEachBlock(sink);
+            return;
+        }
+        int s = Math.max(1, scale);
+        forEachBlock((x, y, z) -> {
+            for (int dz = 0; dz < depth; dz++)
+                for (int dy = 0; dy < s; dy++)
+                    for (int dx = 0; dx < s; dx++)
+                        sink.accept(x * s + dx, y * s + dy, dz);
+        });
+    }
+
+    /**
+     * Get the offsets of every block of the BlockString, relative to the bottom-left.
+     * Offsets are stored as x,y pairs; [x0, y0, x1, y1, ...]
+     *
+     * @return block offsets
+     */
+    public int[] getBlockOffsets() {
+        return layout.getOffsets();
+    }
+
+    /**
+     * Get the row spans of every character, relative to the bottom-left. See Spans.
+     * Spans are stored as y,x0,x1 triples with x1 exclusive; [y0, x0, x1, ...]
+     *
+     * @return block spans
+     */
+    public int[] getBlockSpans() {
+        return layout.getSpans();
+    }
+
+    /**
+     * Get the row spans of every character scaled up, so every pixel is a scale by scale square. See Spans#scale(...)
+     *
+     * @param scale blocks per pixel along each side
+     * @return block spans
+     */
+    public int[] getBlockSpans(int scale) {
+        return Spans.scale(getBlockSpans(), scale);
+    }
+
+    /**
+     * Get rectangles covering every character, relative to the bottom-left; x,y,width,height quads. See Rects.
+     * Made from each character's cached rectangles, so rectangles don't cross from one character into the next.
+     *
+     * @return block rectangles
+     */
+    public int[] getBlockRects() {
+        return layout.getRects();
+    }
+
+    /**
+     * Lays out this BlockString into a BlockVolume that can be pasted many times without redoing the layout.
+     *
+     * @param blockType Block to use
+     * @param orientation Direction the text is written in
+     * @return BlockVolume of this text
+     */
+    public BlockVolume asVolume(BlockType blockType, Orientation orientation) {
+        return asVolume(blockType, orientation, 1);
+    }
+
+    /**
+     * Lays out this BlockString, scaled up, into a BlockVolume.
+     *
+     * @param blockType Block to use
+     * @param orientation Direction the text is written in
+     * @param scale blocks per pixel along each side
+     * @return BlockVolume of this text
+     */
+    public BlockVolume asVolume(BlockType blockType, Orientation orientation, int scale) {
+        return BlockVolume.ofSpans(orientation, blockType, getBlockSpans(scale));
+    }
+
+    /**
+     * Get the ammount of lines in the string.
+     *
+     * @return the line count
+     */
+    public int getLineCount() {
+        return layout.getLineCount();
+    }
+
+    /**
+     * Returns the width of the text.
+     *
+     * This will be length in block of the text.
+     *
+     * @return width in blocks
+     */
+    public int getWidth() {
+        return layout.getWidth();
+    }
+
+    /**
+     * Gets the total block width of the line.
+     * 0 index
+     * returns -1 if line is not found.
+     *
+     * @param line line to get.
+     * @return width in blocks or -1
+     */
+    public int getLineWidth(int line) {
+        if (line < 0 || line >= getLineCount()) return -1;
+        return layout.getLineWidth(line);
+    }
+
+    /**
+     * Returns the longest height of all the lines in the string by counting the height of each character.
+     *
+     * This will be height in block of the text.
+     *
+     * @return height in blocks
+     */
+    public int getHeight() {
+        return layout.getHeight();
+    }
+
+    /**
+     * Get the max height of this line.
+     * 0 index
+     * returns -1 if line is not found.
+     *
+     * @param line line to get.
+     * @return line height or -1
+     */
+    public int getLineHeight(int line) {
+        if (line < 0 || line >= getLineCount()) return -1;
+        return layout.getLineHeight(line);
+    }
+
+    /**
+     * Get the String of the message
+     *
+     * @return the message as a string
+     */
+    public String asString() {
+        return text;
+    }
+
+    /**
+     * Assuming the string contains \n, this will return as an array of strings divided by each \n.
+     *
+     * @return String array of the lines from the message
+     */
+    public String[] asLines() {
+        String[] a = new String[layout.getLineCount()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = layout.getLine(i);
+        return a;
+    }
+
+    /**
+     * Get the char array of the message.
+     *
+     * @return the character array of the message
+     */
+    public char[] asChars() {
+        return asString().toCharArray();
+    }
+
+    /**
+     * Get the message as an array of BlockCharacters.
+     *
+     * @return the message as an array of BlockCharacters
+     */
+    public BlockCharacter[] asBlockCharacters() {
+        BlockCharacter[] a = new BlockCharacter[text.length()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = layout.getGlyph(i);
+        return a;
+    }
+
+    /**
+     * Get the map that is used to store BlockCharacters for this BlockString.
+     * The map will only contain characters used by the text.
+     *
+     * @return character storage map<Character, BlockCharacter>
+     */
+    public Map<Character, BlockCharacter> getbBlockCharacterStorage() {
+        return bCharsStorage;
+    }
+
+    /**
+     * Get the font used for this BlockString
+     *
+     * @return font
+     */
+    public Font getFont() {
+        return font;
+    }
+
+    /**
+     * Get the text alignment for this BlockString
+     *
+     * @return alignment
+     */
+    public Alignment getAlignment() {
+        return alignment;
+    }
+
+    /**
+     * Set the text alignment for this BlockString
+     *
+     * @param alignment Text alignment to use
+     */
+    public void setAlignment(Alignment alignment) {
+        this.alignment = alignment;
+        this.layout = layout.withAlignment(alignment);
+    }
+
+    /**
+     * Get the precomputed layout of this BlockString.
+     *
+     * @return layout
+     */
+    public BlockLayout<BlockCharacter> getLayout() {
+        return layout;
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.github.gamecube762.texttoblock.util;
+
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * A BlockString that has been laid out once, with a block type and orientation, so it can be pasted any amount of times without redoing the layout.
+ *
+ * Blocks are stored as row spans (see Spans) sorted by where they start along the text, so a paste goes through the chunks in order.
+ * Immutable; get one from BlockString#asVolume(...)
+ */
+public final class BlockVolume {
+
+    private final Orientation orientation;
+    private final BlockType blockType;
+    private final int[] spans;//y,x0,x1 triples sorted by x0 then y
+    private final int blockCount;
+    private final int minX, minY, maxX, maxY;
+
+    /**
+     * @param orientation direction the text is written in
+     * @param blockType block to use
+     * @param offsets x,y pairs relative to the bottom-left of the first line
+     */
+    public BlockVolume(Orientation orientation, BlockType blockType, int[] offsets) {
+        this(orientation, blockType, Spans.fromOffsets(offsets));
+    }
+
+    private BlockVolume(Orientation orientation, BlockType blockType, int[] spans) {
+        this.orientation = orientation;
+        this.blockType = blockType;
+        this.spans = Spans.sortByX(spans);
+        this.blockCount = Spans.count(spans);
+
+        int x0 = 0, y0 = 0, x1 = -1, y1 = -1;
+        if (spans.length > 0) {
+            x0 = y0 = Integer.MAX_VALUE;
+            x1 = y1 = Integer.MIN_VALUE;
+            for (int i = 0; i < spans.length; i += 3) {
+                y0 = Math.min(y0, spans[i]);
+                y1 = Math.max(y1, spans[i]);
+                x0 = Math.min(x0, spans[i + 1]);
+                x1 = Math.max(x1, spans[i + 2] - 1);
+            }
+        }
+        this.minX = x0; this.minY = y0; this.maxX = x1; this.maxY = y1;
+    }
+
+    /**
+     * @param orientation direction the text is written in
+     * @param blockType block to use
+     * @param spans y,x0,x1 triples relative to the bottom-left of the first line, see Spans
+     * @return BlockVolume
+     */
+    public static BlockVolume ofSpans(Orientation orientation, BlockType blockType, int[] spans) {
+        return new BlockVolume(orientation, blockType, spans);
+    }
+
+    /**
+     * Pastes the volume at desired location, right now.
+     * For big volumes use PasteScheduler#submit(BlockVolume, ...) instead.
+     *
+     * @param location Location to paste at, bottom-left
+     * @param cause Cause
+     */
+    public void pasteAt(Location<World> location, Cause cause) {
+        pasteAt(location.getExtent(), location.getBlockX(), location.getBlockY(), location.getBlockZ(), cause);
+    }
+
+    /**
+     * Pastes the volume at the block coordinates, right now, a run of blocks at a time; see BlockRuns. Nothing is allocated per block.
+     *
+     * @param world World to paste in
+     * @param bx x to paste at
+     * @param by y to paste at
+     * @param bz z to paste at
+     * @param cause Cause
+     */
+    public void pasteAt(World world, int bx, int by, int bz, Cause cause) {
+        BlockRuns runs = new BlockRuns(world, blockType.getDefaultState(), cause);
+        int dx = orientation.worldX(0, 1), dz = orientation.worldZ(0, 1);
+        for (int i = 0; i < spans.length; i += 3)
+            runs.fill(orientation.worldX(bx, spans[i + 1]), by + spans[i], orientation.worldZ(bz, spans[i + 1]), dx, dz, spans[i + 2] - spans[i + 1]);
+    }
+
+    /**
+     * Get the block offsets, x,y pairs relative to the bottom-left along the text.
+     *
+     * @return block offsets
+     */
+    public int[] getBlockOffsets() {
+        return Spans.toOffsets(spans);
+    }
+
+    /**
+     * Get a copy of the row spans, y,x0,x1 triples relative to the bottom-left along the text. See Spans.
+     *
+     * @return block spans
+     */
+    public int[] getBlockSpans() {
+        return spans.clone();
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Width of the blocks along the text.
+     *
+     * @return width in blocks, 0 if empty
+     */
+    public int getWidth() {
+        return maxX - minX + 1;
+    }
+
+    /**
+     * Height of the blocks, from the lowest line to the top.
+     *
+     * @return height in blocks, 0 if empty
+     */
+    public int getHeight() {
+        return maxY - minY + 1;
+    }
+
+    /**
+     * Lowest block offset along the text.
+     *
+     * @return min x
+     */
+    public int getMinX() {
+        return minX;
+    }
+
+    /**
+     * Lowest block offset on y. Negative for multi-lined text, as lines after the first go below the paste location.
+     *
+     * @return min y
+     */
+    public int getMinY() {
+        return minY;
+    }
+
+    public Orientation getOrientation() {
+        return orientation;
+    }
+
+    public BlockType getBlockType() {
+        return blockType;
+    }
+
+    /**
+     * Saves the volume as a Sponge schematic (version 1) file.
+     *
+     * @param path file to write to
+     * @throws IOException if failed to write
+     */
+    public void saveSchematic(Path path) throws IOException {
+        Schematic.save(path, spans, orientation, blockType.getId());
+    }
+
+    /**
+     * Writes the volume in the Sponge schematic format (version 1); gzipped NBT. See Schematic.
+     * The bottom-left of the text is the schematic's origin, the rest of the volume is air.
+     *
+     * @param out stream to write to, not closed
+     * @throws IOException if failed to write
+     */
+    public void writeSchematic(OutputStream out) throws IOException {
+        Schematic.write(out, spans, orientation, blockType.getId());
+    }
+}
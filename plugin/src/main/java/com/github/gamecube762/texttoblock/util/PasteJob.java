@@ -0,0 +1,356 @@
+package com.github.gamecube762.texttoblock.util;
+
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * A paste that is spread over multiple ticks by the PasteScheduler.
+ *
+ * The blocks are worked out off the main thread as row spans, then the scheduler places a limited amount of them every tick.
+ * Spans are split at chunk borders and grouped by chunk; every chunk is loaded before its blocks are placed and is finished before moving on to the next one.
+ */
+public class PasteJob {
+
+    public enum State {
+        /** Offsets are still being worked out */
+        PREPARING,
+        /** Waiting for, or being placed by, the scheduler */
+        QUEUED,
+        DONE,
+        CANCELLED,
+        FAILED
+    }
+
+    private final World world;
+    private final int baseX, baseY, baseZ;
+    private final Orientation orientation;
+    private final int depth;
+    private final BlockState blockState;//Looked up once, not for every block
+    private final Cause cause;
+
+    private final CompletableFuture<PasteJob> completion = new CompletableFuture<>();
+    private final List<Consumer<PasteJob>> progressListeners = new CopyOnWriteArrayList<>();
+    private final AtomicReference<State> state = new AtomicReference<>(State.PREPARING);//Changed from both the prepare thread and the main thread
+
+    private int[] spans;//y,x0,x1 triples, each within one chunk, grouped by chunk
+    private int[] chunkStarts;//index of the first span of each chunk, plus the span count at the end
+    private int chunk = -1;//chunk currently being placed
+    private int span, spanPos;//span currently being placed and blocks of it already placed
+    private volatile int total, placed, chunksTouched;
+
+    public PasteJob(Location<World> location, BlockType blockType, Cause cause) {
+        this(location, Orientation.EAST, blockType, cause);
+    }
+
+    public PasteJob(Location<World> location, Orientation orientation, BlockType blockType, Cause cause) {
+        this(location, orientation, 1, blockType, cause);
+    }
+
+    /**
+     * @param location Location to paste at, bottom-left
+     * @param orientation Direction the text is written in
+     * @param depth Blocks deep every block is, see Orientation#depthX(...)
+     * @param blockType Block to use
+     * @param cause Cause
+     */
+    public PasteJob(Location<World> location, Orientation orientation, int depth, BlockType blockType, Cause cause) {
+        this.orientation = orientation;
+        this.depth = Math.max(1, depth);
+        this.world = location.getExtent();
+        this.baseX = location.getBlockX();
+        this.baseY = location.getBlockY();
+        this.baseZ = location.getBlockZ();
+        this.blockState = blockType.getDefaultState();
+        this.cause = cause;
+    }
+
+    /**
+     * Sets the block offsets to place and marks this job as ready to be placed.
+     *
+     * @param offsets x,y pairs relative to the location
+     */
+    public void prepared(int[] offsets) {
+        preparedSpans(Spans.fromOffsets(offsets));
+    }
+
+    /**
+     * Sets the row spans to place and marks this job as ready to be placed.
+     * Called by the scheduler once the spans have been worked out.
+     *
+     * @param spans y,x0,x1 triples relative to the location, see Spans
+     */
+    public void preparedSpans(int[] spans) {
+        groupByChunk(spans);
+        this.total = Spans.count(spans) * depth;
+        if (!state.compareAndSet(State.PREPARING, State.QUEUED)) {//Cancelled or failed while preparing
+            this.spans = null;
+            this.chunkStarts = null;
+        }
+    }
+
+    /**
+     * Splits the spans at chunk borders, then sorts them by chunk, keeping the original order within a chunk.
+     * Text is pasted along a single axis, so only one chunk coordinate changes.
+     */
+    private void groupByChunk(int[] in) {
+        int pieces = 0;
+        for (int i = 0; i < in.length; i += 3)
+            for (int x = in[i + 1]; x < in[i + 2]; x = chunkEnd(x, in[i + 2]))
+                pieces++;
+
+        if (pieces == 0) {
+            spans = Spans.EMPTY;
+            chunkStarts = new int[]{0};
+            return;
+        }
+
+        int[] split = new int[pieces * 3];
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int i = 0, k = 0; i < in.length; i += 3)
+            for (int x = in[i + 1], e; x < in[i + 2]; x = e) {
+                e = chunkEnd(x, in[i + 2]);
+                split[k++] = in[i];
+                split[k++] = x;
+                split[k++] = e;
+
+                int cx = chunkOf(x);
+                if (cx < min) min = cx;
+                if (cx > max) max = cx;
+            }
+
+        int[] counts = new int[max - min + 2];
+        for (int i = 0; i < pieces; i++)
+            counts[chunkOf(split[i * 3 + 1]) - min + 1]++;
+
+        int used = 0;
+        for (int c = 1; c < counts.length; c++)
+            if (counts[c] > 0) used++;
+
+        int[] starts = new int[used + 1];
+        for (int c = 1, k = 0; c < counts.length; c++) {
+            if (counts[c] > 0) starts[k++] = counts[c - 1];
+            counts[c] += counts[c - 1];//counts[c] is now where chunk c ends, counts[c - 1] where it starts
+        }
+        starts[used] = pieces;
+
+        int[] out = new int[split.length];
+        for (int i = 0; i < pieces; i++)
+            System.arraycopy(split, i * 3, out, counts[chunkOf(split[i * 3 + 1]) - min]++ * 3, 3);
+
+        spans = out;
+        chunkStarts = starts;
+    }
+
+    private int chunkOf(int x) {
+        return orientation.isAlongX() ? orientation.worldX(baseX, x) >> 4 : orientation.worldZ(baseZ, x) >> 4;
+    }
+
+    /**
+     * End, exclusive, of the run starting at x that stays in x's chunk.
+     */
+    private int chunkEnd(int x, int end) {
+        int w = orientation.isAlongX() ? orientation.worldX(baseX, x) : orientation.worldZ(baseZ, x);
+        int left = orientation.worldX(0, 1) + orientation.worldZ(0, 1) > 0 ? 16 - (w & 15) : (w & 15) + 1;//Blocks left in the chunk going along the text
+        return (int) Math.min(end, (long) x + left);
+    }
+
+    /**
+     * Places up to max blocks. Must be called on the main thread.
+     * Every span is within a single chunk, so the chunk is only looked at when moving on to the next one.
+     * With a depth, every block of a span is placed that many blocks deep; this can go past the budget by less than the depth.
+     *
+     * @param max max blocks to place
+     * @param deadline System.nanoTime() to stop at
+     * @return amount placed
+     */
+    public int placeSome(int max, long deadline) {
+        if (state.get() != State.QUEUED) return 0;
+        int[] spans = this.spans;
+        if (spans == null) return 0;
+
+        boolean jfr = JfrBridge.INSTANCE.isPasteTickEnabled();
+        long start = jfr ? System.nanoTime() : 0;
+        int chunksBefore = chunksTouched;
+        BlockRuns runs = new BlockRuns(world, blockState, cause);//Per call, chunks may unload between ticks
+        int dx = orientation.worldX(0, 1), dz = orientation.worldZ(0, 1);
+        int count = spans.length / 3;
+        int done = 0, sinceCheck = 0;
+        while (done < max && span < count) {
+            if (chunk < 0 || span >= chunkStarts[chunk + 1]) {//Entering the next chunk
+                chunk++;
+                chunksTouched++;
+                int wx = orientation.worldX(baseX, spans[span * 3 + 1]), wz = orientation.worldZ(baseZ, spans[span * 3 + 1]);
+                for (int cx = Math.min(wx, orientation.depthX(wx, depth - 1)) >> 4, ex = Math.max(wx, orientation.depthX(wx, depth - 1)) >> 4; cx <= ex; cx++)//Depth may reach into the next chunk over
+                    for (int cz = Math.min(wz, orientation.depthZ(wz, depth - 1)) >> 4, ez = Math.max(wz, orientation.depthZ(wz, depth - 1)) >> 4; cz <= ez; cz++)
+                        world.loadChunk(cx, 0, cz, true);
+            }
+
+            int s = span * 3;
+            int x = spans[s + 1] + spanPos;
+            int n = Math.min(spans[s + 2] - x, Math.max(1, (max - done) / depth));
+            int y = baseY + spans[s], wx = orientation.worldX(baseX, x), wz = orientation.worldZ(baseZ, x);
+            for (int d = 0; d < depth; d++)
+                runs.fill(orientation.depthX(wx, d), y, orientation.depthZ(wz, d), dx, dz, n);
+
+            done += n * depth;
+            spanPos += n;
+            if (x + n == spans[s + 2]) {
+                span++;
+                spanPos = 0;
+            }
+
+            if ((sinceCheck += n * depth) >= 256) {//nanoTime isn't free; only check every 256 blocks
+                sinceCheck = 0;
+                if (System.nanoTime() > deadline)
+                    break;
+            }
+        }
+        placed += done;
+
+        if (done > 0)//Only ticks that placed blocks, see onProgress(...)
+            progressListeners.forEach(l -> l.accept(this));
+        boolean finished = span >= count && state.compareAndSet(State.QUEUED, State.DONE);
+        if (finished) {
+            this.spans = null;
+            this.chunkStarts = null;
+        }
+
+        if (jfr)//Before completing, so the event comes before anything the completion sets off
+            JfrBridge.INSTANCE.pasteTick(world.getName(), done, chunksTouched - chunksBefore, System.nanoTime() - start, placed, total, finished);
+        if (finished)
+            completion.complete(this);
+        return done;
+    }
+
+    /**
+     * Marks the job as failed; used if the offsets couldn't be worked out.
+     *
+     * @param t cause
+     */
+    public void fail(Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null)
+            t = t.getCause();
+        if (!finish(State.FAILED)) return;
+        completion.completeExceptionally(t);
+    }
+
+    /**
+     * Stops the job. Blocks that were already placed stay placed.
+     *
+     * @return false if the job was already finished
+     */
+    public boolean cancel() {
+        if (!finish(State.CANCELLED)) return false;
+        completion.completeExceptionally(new CancellationException("Paste cancelled"));
+        return true;
+    }
+
+    /**
+     * Moves a job that isn't finished yet to the end state and drops its spans.
+     *
+     * @return false if the job was already finished
+     */
+    private boolean finish(State end) {
+        for (State s = state.get(); !isFinished(s); s = state.get())
+            if (state.compareAndSet(s, end)) {
+                spans = null;
+                chunkStarts = null;
+                return true;
+            }
+        return false;
+    }
+
+    /**
+     * Adds a listener that is called on the main thread after every tick this job placed blocks in.
+     *
+     * @param listener progress listener
+     * @return this
+     */
+    public PasteJob onProgress(Consumer<PasteJob> listener) {
+        progressListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Future that completes when every block is placed. Completes exceptionally if cancelled or failed.
+     *
+     * @return completion future
+     */
+    public CompletableFuture<PasteJob> getCompletion() {
+        return completion;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean isFinished() {
+        return isFinished(state.get());
+    }
+
+    private static boolean isFinished(State s) {
+        return s == State.DONE || s == State.CANCELLED || s == State.FAILED;
+    }
+
+    /**
+     * Get the amount of blocks placed so far.
+     *
+     * @return placed blocks
+     */
+    public int getPlaced() {
+        return placed;
+    }
+
+    /**
+     * Get the amount of blocks this job will place. 0 while preparing.
+     *
+     * @return total blocks
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Progress from 0 to 1.
+     *
+     * @return progress
+     */
+    public double getProgress() {
+        int t = total;
+        return state.get() == State.DONE ? 1 : t == 0 ? 0 : (double) placed / t;
+    }
+
+    /**
+     * Get the amount of chunks this job has placed blocks in so far.
+     *
+     * @return chunks touched
+     */
+    public int getChunksTouched() {
+        return chunksTouched;
+    }
+
+    /**
+     * Get the amount of chunks this job will place blocks in. 0 while preparing.
+     *
+     * @return chunk count
+     */
+    public int getChunkCount() {
+        int[] a = chunkStarts;
+        return a == null ? (state.get() == State.DONE ? chunksTouched : 0) : a.length - 1;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.gamecube762.texttoblock.util;
+
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import java.util.Arrays;
+
+/**
+ * Text that has been pasted in the world and can be changed in place.
+ *
+ * Remembers the blocks it placed, so update(...) only places the blocks the new text adds and only clears the blocks it no longer uses.
+ * Used for boards that are re-pasted often with slightly different text. Must be used on the main thread.
+ */
+public class PlacedText {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final World world;
+    private final int baseX, baseY, baseZ;
+    private final Orientation orientation;
+    private final BlockState blockState, air;//Looked up once, not for every block
+    private final Cause cause;
+
+    private long[] footprint = EMPTY;//sorted, x in the high bits and y in the low bits
+    private String text;
+    private int lastPlaced, lastCleared;
+
+    /**
+     * Nothing is placed until the first update(...)
+     *
+     * @param location Location to paste at, bottom-left
+     * @param orientation Direction the text is written in
+     * @param blockType Block to use
+     * @param cause Cause
+     */
+    public PlacedText(Location<World> location, Orientation orientation, BlockType blockType, Cause cause) {
+        this.world = location.getExtent();
+        this.baseX = location.getBlockX();
+        this.baseY = location.getBlockY();
+        this.baseZ = location.getBlockZ();
+        this.orientation = orientation;
+        this.blockState = blockType.getDefaultState();
+        this.air = BlockTypes.AIR.getDefaultState();
+        this.cause = cause;
+    }
+
+    /**
+     * Changes the placed text to the new BlockString, only writing the blocks that differ.
+     *
+     * @param blockString new text
+     * @return amount of blocks written, placed and cleared
+     */
+    public int update(BlockString blockString) {
+        int written = update(blockString.getBlockOffsets());
+        text = blockString.asString();
+        return written;
+    }
+
+    /**
+     * Changes the placed blocks to the new offsets, only writing the blocks that differ.
+     *
+     * @param offsets x,y pairs relative to the location
+     * @return amount of blocks written, placed and cleared
+     */
+    public int update(int[] offsets) {
+        text = null;
+        long[] next = new long[offsets.length / 2];
+        for (int i = 0; i < next.length; i++)
+            next[i] = pack(offsets[i * 2], offsets[i * 2 + 1]);
+        Arrays.sort(next);
+        int n = 0;
+        for (int i = 0; i < next.length; i++)//Overlapping offsets would be placed and counted twice
+            if (n == 0 || next[i] != next[n - 1])
+                next[n++] = next[i];
+        if (n < next.length)
+            next = Arrays.copyOf(next, n);
+
+        long[] prev = footprint;
+        int placed = 0, cleared = 0;
+        int a = 0, b = 0;
+        while (a < prev.length || b < next.length) {//Both are sorted; walk them together
+            if (b == next.length || (a < prev.length && prev[a] < next[b])) {
+                set(prev[a++], air);
+                cleared++;
+            }
+            else if (a == prev.length || next[b] < prev[a]) {
+                set(next[b++], blockState);
+                placed++;
+            }
+            else {//In both, leave it be
+                a++;
+                b++;
+            }
+        }
+
+        footprint = next;
+        lastPlaced = placed;
+        lastCleared = cleared;
+        return placed + cleared;
+    }
+
+    /**
+     * Removes all placed blocks.
+     *
+     * @return amount of blocks cleared
+     */
+    public int clear() {
+        int cleared = update(new int[0]);
+        text = "";
+        return cleared;
+    }
+
+    private void set(long key, BlockState state) {
+        int x = (int) (key >> 32), y = (int) key;
+        world.setBlock(orientation.worldX(baseX, x), baseY + y, orientation.worldZ(baseZ, x), state, cause);
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get the text that is currently placed. Null if it was placed from raw offsets.
+     *
+     * @return placed text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the amount of blocks currently placed.
+     *
+     * @return block count
+     */
+    public int getBlockCount() {
+        return footprint.length;
+    }
+
+    /**
+     * Amount of blocks the last update placed.
+     *
+     * @return blocks placed
+     */
+    public int getLastPlaced() {
+        return lastPlaced;
+    }
+
+    /**
+     * Amount of blocks the last update cleared.
+     *
+     * @return blocks cleared
+     */
+    public int getLastCleared() {
+        return lastCleared;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+}